@@ -0,0 +1,6 @@
+-- Extra local databases for trying ledger sharding:
+--   PP_SHARD_URLS=jdbc:postgresql://localhost:5432/proofpulse_shard0,jdbc:postgresql://localhost:5432/proofpulse_shard1,jdbc:postgresql://localhost:5432/proofpulse_shard2
+-- Runs only when the pp_pgdata volume is first initialised.
+CREATE DATABASE proofpulse_shard0 OWNER proofpulse;
+CREATE DATABASE proofpulse_shard1 OWNER proofpulse;
+CREATE DATABASE proofpulse_shard2 OWNER proofpulse;
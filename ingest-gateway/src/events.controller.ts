@@ -6,7 +6,9 @@ import {
   Post,
   ConflictException,
   ServiceUnavailableException,
-  BadRequestException
+  BadRequestException,
+  HttpException,
+  Res
 } from "@nestjs/common";
 import { ApiHeader, ApiOperation, ApiResponse, ApiTags } from "@nestjs/swagger";
 import { EvidenceEventDto } from "./evidence.dto";
@@ -27,10 +29,12 @@ export class EventsController {
   @ApiOperation({ summary: "Ingest a new evidence event (idempotent)" })
   @ApiResponse({ status: 201, description: "Accepted" })
   @ApiResponse({ status: 409, description: "Duplicate eventId" })
+  @ApiResponse({ status: 429, description: "Ledger is shedding load for this chain/project" })
   @ApiResponse({ status: 503, description: "Ledger unavailable" })
   async ingest(
     @Headers("idempotency-key") idemHeader: string,
-    @Body() body: EvidenceEventDto
+    @Body() body: EvidenceEventDto,
+    @Res({ passthrough: true }) res: { setHeader(name: string, value: string): void }
   ) {
     const key = this.idem.getKeyFromHeader(idemHeader);
 
@@ -46,6 +50,15 @@ export class EventsController {
       // Common ledger responses
       if (status === 409) throw new ConflictException("Duplicate eventId");
       if (status === 400) throw new BadRequestException(data?.error ?? data ?? "Ledger rejected request");
+      if (status === 429) {
+        // Pass the ledger's estimate through as a header, not just in the body
+        const retryAfterSeconds = Number(e?.response?.headers?.["retry-after"] ?? data?.retryAfterSeconds ?? 1);
+        res.setHeader("Retry-After", String(retryAfterSeconds));
+        throw new HttpException(
+          { error: "Ledger busy", scope: data?.scope, retryAfterSeconds },
+          429
+        );
+      }
 
       // If ledger returned something else (404/500), expose it clearly
       if (status) {
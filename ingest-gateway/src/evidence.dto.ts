@@ -4,6 +4,7 @@ import {
   IsISO8601,
   IsInt,
   IsObject,
+  IsOptional,
   IsString,
   IsUUID,
   Matches,
@@ -56,4 +57,9 @@ export class EvidenceEventDto {
   @ApiProperty({ type: "object" })
   @IsObject()
   payload!: Record<string, any>;
+
+  @ApiProperty({ enum: ["sha256-legacy", "sha256", "sha512-256"], required: false })
+  @IsOptional()
+  @IsIn(["sha256-legacy", "sha256", "sha512-256"])
+  hashSuite?: string;
 }
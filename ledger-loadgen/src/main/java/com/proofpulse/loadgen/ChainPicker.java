@@ -0,0 +1,27 @@
+package com.proofpulse.loadgen;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/** Picks a chain index with Zipf(skew) weights; chain 0 is the hottest. */
+final class ChainPicker {
+
+  private final double[] cdf;
+
+  ChainPicker(int chains, double skew) {
+    cdf = new double[chains];
+    double sum = 0;
+    for (int k = 0; k < chains; k++) {
+      sum += 1.0 / Math.pow(k + 1, skew);
+      cdf[k] = sum;
+    }
+    for (int k = 0; k < chains; k++) cdf[k] /= sum;
+  }
+
+  int next() {
+    double u = ThreadLocalRandom.current().nextDouble();
+    int i = Arrays.binarySearch(cdf, u);
+    if (i < 0) i = -i - 1;
+    return Math.min(i, cdf.length - 1);
+  }
+}
@@ -0,0 +1,84 @@
+package com.proofpulse.loadgen;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Run settings, from --key=value arguments.
+ *
+ * workload  ingest | batch | verify | head
+ * rate      target operations/sec; requests are scheduled open-loop at this rate
+ *           and latency is measured from the scheduled start (coordinated omission)
+ * skew      Zipf exponent over chains: 0 = uniform, ~1 = a few hot chains
+ */
+record LoadConfig(
+    String baseUrl,
+    String workload,
+    int chains,
+    double skew,
+    int payloadBytes,
+    int concurrency,
+    double rate,
+    int durationSeconds,
+    int warmupSeconds,
+    int batchSize,
+    int seedEventsPerChain,
+    String projectId,
+    String label,
+    String out
+) {
+
+  static LoadConfig parse(String[] args) {
+    Map<String, String> a = new HashMap<>();
+    for (String arg : args) {
+      if (!arg.startsWith("--") || !arg.contains("=")) {
+        throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+      }
+      int eq = arg.indexOf('=');
+      a.put(arg.substring(2, eq), arg.substring(eq + 1));
+    }
+
+    String workload = a.getOrDefault("workload", "ingest");
+    if (!workload.matches("ingest|batch|verify|head")) {
+      throw new IllegalArgumentException("Unknown workload: " + workload);
+    }
+    boolean readOnly = workload.equals("verify") || workload.equals("head");
+
+    return new LoadConfig(
+        a.getOrDefault("baseUrl", "http://localhost:8081"),
+        workload,
+        Integer.parseInt(a.getOrDefault("chains", "100")),
+        Double.parseDouble(a.getOrDefault("skew", "0")),
+        Integer.parseInt(a.getOrDefault("payloadBytes", "256")),
+        Integer.parseInt(a.getOrDefault("concurrency", "32")),
+        Double.parseDouble(a.getOrDefault("rate", "500")),
+        Integer.parseInt(a.getOrDefault("duration", "60")),
+        Integer.parseInt(a.getOrDefault("warmup", "10")),
+        Integer.parseInt(a.getOrDefault("batchSize", "50")),
+        // Read-only workloads need something to read
+        Integer.parseInt(a.getOrDefault("seedEvents", readOnly ? "100" : "0")),
+        a.getOrDefault("projectId", "loadgen-" + UUID.randomUUID().toString().substring(0, 8)),
+        a.getOrDefault("label", workload),
+        a.getOrDefault("out", "loadgen-report.json")
+    );
+  }
+
+  Map<String, Object> asMap() {
+    Map<String, Object> m = new LinkedHashMap<>();
+    m.put("baseUrl", baseUrl);
+    m.put("workload", workload);
+    m.put("chains", chains);
+    m.put("skew", skew);
+    m.put("payloadBytes", payloadBytes);
+    m.put("concurrency", concurrency);
+    m.put("rate", rate);
+    m.put("durationSeconds", durationSeconds);
+    m.put("warmupSeconds", warmupSeconds);
+    m.put("batchSize", batchSize);
+    m.put("seedEventsPerChain", seedEventsPerChain);
+    m.put("projectId", projectId);
+    return m;
+  }
+}
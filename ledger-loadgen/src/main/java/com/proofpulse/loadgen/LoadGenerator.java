@@ -0,0 +1,223 @@
+package com.proofpulse.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load generator for ledger-service.
+ *
+ *   java -jar ledger-loadgen.jar --workload=ingest --chains=100 --skew=1.0 --rate=1000 --concurrency=64
+ *   java -jar ledger-loadgen.jar compare baseline.json candidate.json
+ *
+ * Requests are issued open-loop: operation i is due at start + i / rate and
+ * its latency is measured from that due time, so time spent waiting for a free
+ * worker (a stalled server) shows up in the "corrected" histogram instead of
+ * silently lowering the request rate. "service" latency is measured from the
+ * actual send. Both are written to a JSON report (see {@link Report}).
+ */
+public final class LoadGenerator {
+
+  private static final ObjectMapper OM = new ObjectMapper();
+  private static final char[] ALPHABET = "abcdefghijklmnopqrstuvwxyz0123456789".toCharArray();
+
+  private final LoadConfig cfg;
+  private final HttpClient http;
+  private final ChainPicker picker;
+
+  LoadGenerator(LoadConfig cfg) {
+    this.cfg = cfg;
+    this.http = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+    this.picker = new ChainPicker(cfg.chains(), cfg.skew());
+  }
+
+  public static void main(String[] args) throws Exception {
+    if (args.length > 0 && args[0].equals("compare")) {
+      if (args.length != 3) throw new IllegalArgumentException("usage: compare <baseline.json> <candidate.json>");
+      System.out.println(OM.writerWithDefaultPrettyPrinter().writeValueAsString(
+          Report.compare(OM.readTree(new File(args[1])), OM.readTree(new File(args[2])))));
+      return;
+    }
+
+    LoadConfig cfg = LoadConfig.parse(args);
+    new LoadGenerator(cfg).run();
+  }
+
+  void run() throws Exception {
+    Instant startedAt = Instant.now();
+
+    if (cfg.seedEventsPerChain() > 0) {
+      System.err.printf("seeding %d chains x %d events%n", cfg.chains(), cfg.seedEventsPerChain());
+      seed();
+    }
+    if (cfg.warmupSeconds() > 0) {
+      System.err.printf("warmup %ds%n", cfg.warmupSeconds());
+      runPhase(cfg.warmupSeconds());
+    }
+    System.err.printf("measuring %ds at %.0f ops/s%n", cfg.durationSeconds(), cfg.rate());
+    Phase measured = runPhase(cfg.durationSeconds());
+
+    ObjectNode report = Report.build(cfg, startedAt, measured);
+    OM.writerWithDefaultPrettyPrinter().writeValue(new File(cfg.out()), report);
+    System.out.println(OM.writeValueAsString(report.get("summary")));
+  }
+
+  /** Measurements of one phase; histograms are in nanoseconds. */
+  static final class Phase {
+    final Histogram corrected = new Histogram(3);
+    final Histogram service = new Histogram(3);
+    final Map<String, LongAdder> statuses = new ConcurrentHashMap<>();
+    final LongAdder events = new LongAdder();
+    long elapsedNanos;
+    long operations;
+  }
+
+  private Phase runPhase(int seconds) throws InterruptedException {
+    Phase phase = new Phase();
+    long intervalNanos = (long) (1_000_000_000L / cfg.rate());
+    long start = System.nanoTime();
+    long end = start + seconds * 1_000_000_000L;
+    AtomicLong seq = new AtomicLong();
+
+    List<Thread> workers = new ArrayList<>();
+    List<Histogram[]> perWorker = Collections.synchronizedList(new ArrayList<>());
+    for (int w = 0; w < cfg.concurrency(); w++) {
+      Thread t = new Thread(() -> {
+        Histogram corrected = new Histogram(3);
+        Histogram service = new Histogram(3);
+        perWorker.add(new Histogram[]{corrected, service});
+
+        while (true) {
+          long due = start + seq.getAndIncrement() * intervalNanos;
+          if (due >= end) break;
+          long now;
+          while ((now = System.nanoTime()) < due) LockSupport.parkNanos(due - now);
+
+          String status = operation(phase);
+          long done = System.nanoTime();
+          corrected.recordValue(done - due);
+          service.recordValue(done - now);
+          phase.statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+        }
+      }, "loadgen-" + w);
+      t.start();
+      workers.add(t);
+    }
+    for (Thread t : workers) t.join();
+
+    for (Histogram[] h : perWorker) {
+      phase.corrected.add(h[0]);
+      phase.service.add(h[1]);
+    }
+    phase.elapsedNanos = System.nanoTime() - start;
+    phase.operations = phase.corrected.getTotalCount();
+    return phase;
+  }
+
+  /** Runs one operation of the configured workload and returns its outcome (HTTP status or "error"). */
+  private String operation(Phase phase) {
+    String artifactId = "chain-" + picker.next();
+    try {
+      HttpRequest req;
+      switch (cfg.workload()) {
+        case "ingest" -> {
+          req = post("/internal/ledger/events", event(artifactId).toString());
+          phase.events.increment();
+        }
+        case "batch" -> {
+          ArrayNode batch = OM.createArrayNode();
+          for (int i = 0; i < cfg.batchSize(); i++) batch.add(event(artifactId));
+          req = post("/internal/ledger/events/batch", batch.toString());
+          phase.events.add(cfg.batchSize());
+        }
+        case "verify" -> req = get("/chains/verify", artifactId);
+        default -> req = get("/chains/head", artifactId);
+      }
+      return String.valueOf(http.send(req, HttpResponse.BodyHandlers.discarding()).statusCode());
+    } catch (Exception ex) {
+      return "error";
+    }
+  }
+
+  /** Appends seedEventsPerChain events to every chain before measuring (not recorded). */
+  private void seed() throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(cfg.concurrency());
+    try {
+      List<java.util.concurrent.Future<?>> futures = new ArrayList<>();
+      for (int c = 0; c < cfg.chains(); c++) {
+        String artifactId = "chain-" + c;
+        futures.add(pool.submit(() -> {
+          for (int i = 0; i < cfg.seedEventsPerChain(); i++) {
+            http.send(post("/internal/ledger/events", event(artifactId).toString()), HttpResponse.BodyHandlers.discarding());
+          }
+          return null;
+        }));
+      }
+      for (java.util.concurrent.Future<?> f : futures) f.get();
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  private ObjectNode event(String artifactId) {
+    ObjectNode payload = OM.createObjectNode();
+    payload.put("data", randomText(cfg.payloadBytes()));
+
+    ObjectNode e = OM.createObjectNode();
+    e.put("schemaVersion", 1);
+    e.put("eventId", UUID.randomUUID().toString());
+    e.put("projectId", cfg.projectId());
+    e.put("artifactId", artifactId);
+    e.put("source", "loadgen");
+    e.put("timestamp", Instant.now().toString());
+    e.put("type", "LOADGEN");
+    e.set("payload", payload);
+    return e;
+  }
+
+  private static String randomText(int length) {
+    ThreadLocalRandom rnd = ThreadLocalRandom.current();
+    char[] out = new char[length];
+    for (int i = 0; i < length; i++) out[i] = ALPHABET[rnd.nextInt(ALPHABET.length)];
+    return new String(out);
+  }
+
+  private HttpRequest post(String path, String json) {
+    return HttpRequest.newBuilder(URI.create(cfg.baseUrl() + path))
+        .timeout(Duration.ofSeconds(30))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(json))
+        .build();
+  }
+
+  private HttpRequest get(String path, String artifactId) {
+    String query = "?projectId=" + URLEncoder.encode(cfg.projectId(), StandardCharsets.UTF_8)
+        + "&artifactId=" + URLEncoder.encode(artifactId, StandardCharsets.UTF_8);
+    return HttpRequest.newBuilder(URI.create(cfg.baseUrl() + path + query))
+        .timeout(Duration.ofSeconds(30))
+        .GET()
+        .build();
+  }
+}
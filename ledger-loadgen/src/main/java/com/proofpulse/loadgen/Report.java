@@ -0,0 +1,114 @@
+package com.proofpulse.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * JSON run report. "summary" holds the numbers to compare between runs;
+ * "histograms" holds the full compressed HdrHistograms (base64) so other
+ * percentiles can be recomputed later.
+ */
+final class Report {
+
+  static final int FORMAT_VERSION = 1;
+
+  private static final ObjectMapper OM = new ObjectMapper();
+  private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+  private Report() {}
+
+  static ObjectNode build(LoadConfig cfg, Instant startedAt, LoadGenerator.Phase phase) {
+    double seconds = phase.elapsedNanos / 1e9;
+
+    ObjectNode summary = OM.createObjectNode();
+    summary.put("label", cfg.label());
+    summary.put("workload", cfg.workload());
+    summary.put("operations", phase.operations);
+    summary.put("events", phase.events.sum());
+    summary.put("elapsedSeconds", round(seconds));
+    summary.put("throughputOpsPerSec", round(phase.operations / seconds));
+    summary.put("eventsPerSec", round(phase.events.sum() / seconds));
+    ObjectNode statuses = summary.putObject("statuses");
+    phase.statuses.forEach((k, v) -> statuses.put(k, v.sum()));
+    summary.set("correctedLatencyMs", latency(phase.corrected));
+    summary.set("serviceLatencyMs", latency(phase.service));
+
+    ObjectNode histograms = OM.createObjectNode();
+    histograms.put("unit", "nanoseconds");
+    histograms.put("corrected", encode(phase.corrected));
+    histograms.put("service", encode(phase.service));
+
+    ObjectNode report = OM.createObjectNode();
+    report.put("formatVersion", FORMAT_VERSION);
+    report.put("startedAt", startedAt.toString());
+    report.set("config", OM.valueToTree(cfg.asMap()));
+    report.set("summary", summary);
+    report.set("histograms", histograms);
+    return report;
+  }
+
+  /** Relative change (candidate / baseline - 1) of every numeric summary field both reports have. */
+  static ObjectNode compare(JsonNode baseline, JsonNode candidate) {
+    ObjectNode out = OM.createObjectNode();
+    out.put("baseline", baseline.path("summary").path("label").asText());
+    out.put("candidate", candidate.path("summary").path("label").asText());
+    out.set("deltas", deltas(baseline.path("summary"), candidate.path("summary")));
+    return out;
+  }
+
+  private static ObjectNode deltas(JsonNode a, JsonNode b) {
+    ObjectNode out = OM.createObjectNode();
+    Iterator<Map.Entry<String, JsonNode>> fields = a.fields();
+    while (fields.hasNext()) {
+      Map.Entry<String, JsonNode> f = fields.next();
+      JsonNode other = b.get(f.getKey());
+      if (other == null) continue;
+      if (f.getValue().isObject()) {
+        ObjectNode nested = deltas(f.getValue(), other);
+        if (!nested.isEmpty()) out.set(f.getKey(), nested);
+      } else if (f.getValue().isNumber() && other.isNumber()) {
+        double base = f.getValue().asDouble();
+        ObjectNode d = out.putObject(f.getKey());
+        d.put("baseline", base);
+        d.put("candidate", other.asDouble());
+        if (base != 0) d.put("change", round(other.asDouble() / base - 1));
+      }
+    }
+    return out;
+  }
+
+  private static ObjectNode latency(Histogram h) {
+    ObjectNode n = OM.createObjectNode();
+    n.put("mean", ms(h.getMean()));
+    for (double p : PERCENTILES) {
+      n.put("p" + String.valueOf(p).replace(".0", "").replace(".", "_"), ms(h.getValueAtPercentile(p)));
+    }
+    n.put("max", ms(h.getMaxValue()));
+    return n;
+  }
+
+  private static String encode(Histogram h) {
+    ByteBuffer buf = ByteBuffer.allocate(h.getNeededByteBufferCapacity());
+    int len = h.encodeIntoCompressedByteBuffer(buf);
+    byte[] bytes = new byte[len];
+    buf.flip();
+    buf.get(bytes);
+    return Base64.getEncoder().encodeToString(bytes);
+  }
+
+  private static double ms(double nanos) {
+    return round(nanos / 1e6);
+  }
+
+  private static double round(double v) {
+    return Math.round(v * 1000) / 1000.0;
+  }
+}
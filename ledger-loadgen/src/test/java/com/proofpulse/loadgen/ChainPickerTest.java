@@ -0,0 +1,38 @@
+package com.proofpulse.loadgen;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChainPickerTest {
+
+  @Test
+  void skewZeroIsUniform() {
+    int[] counts = pick(new ChainPicker(10, 0), 10, 100_000);
+    for (int c : counts) {
+      assertTrue(c > 9_000 && c < 11_000, "count " + c);
+    }
+  }
+
+  @Test
+  void zipfSkewMakesLowIndexesHot() {
+    int[] counts = pick(new ChainPicker(100, 1.0), 100, 100_000);
+
+    // Zipf(1) over 100 chains: chain 0 gets 1/H(100) ~ 19%, chain 1 half of that
+    assertTrue(counts[0] > 17_000 && counts[0] < 21_500, "chain 0: " + counts[0]);
+    assertTrue(counts[1] > counts[0] * 0.4 && counts[1] < counts[0] * 0.6, "chain 1: " + counts[1]);
+    assertTrue(counts[0] > counts[99] * 50);
+  }
+
+  @Test
+  void singleChainAlwaysPicksIt() {
+    ChainPicker picker = new ChainPicker(1, 1.5);
+    for (int i = 0; i < 1_000; i++) assertEquals(0, picker.next());
+  }
+
+  private static int[] pick(ChainPicker picker, int chains, int n) {
+    int[] counts = new int[chains];
+    for (int i = 0; i < n; i++) counts[picker.next()]++;
+    return counts;
+  }
+}
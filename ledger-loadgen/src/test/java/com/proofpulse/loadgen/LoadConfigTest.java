@@ -0,0 +1,34 @@
+package com.proofpulse.loadgen;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadConfigTest {
+
+  @Test
+  void parsesKeyValueArgumentsOverDefaults() {
+    LoadConfig cfg = LoadConfig.parse(new String[]{"--workload=batch", "--chains=7", "--skew=1.1", "--rate=250.5", "--label=run-a"});
+
+    assertEquals("batch", cfg.workload());
+    assertEquals(7, cfg.chains());
+    assertEquals(1.1, cfg.skew());
+    assertEquals(250.5, cfg.rate());
+    assertEquals("run-a", cfg.label());
+    assertEquals(32, cfg.concurrency());
+    assertEquals(0, cfg.seedEventsPerChain());
+  }
+
+  @Test
+  void readOnlyWorkloadsSeedEventsByDefault() {
+    assertEquals(100, LoadConfig.parse(new String[]{"--workload=verify"}).seedEventsPerChain());
+    assertEquals(3, LoadConfig.parse(new String[]{"--workload=head", "--seedEvents=3"}).seedEventsPerChain());
+  }
+
+  @Test
+  void rejectsMalformedArgumentsAndUnknownWorkloads() {
+    assertThrows(IllegalArgumentException.class, () -> LoadConfig.parse(new String[]{"chains=7"}));
+    assertThrows(IllegalArgumentException.class, () -> LoadConfig.parse(new String[]{"--chains"}));
+    assertThrows(IllegalArgumentException.class, () -> LoadConfig.parse(new String[]{"--workload=delete"}));
+  }
+}
@@ -0,0 +1,41 @@
+package com.proofpulse.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportTest {
+
+  private static final ObjectMapper OM = new ObjectMapper();
+
+  @Test
+  void compareReportsTheRelativeChangeOfSharedSummaryNumbers() throws Exception {
+    JsonNode baseline = OM.readTree("""
+        {"summary": {"label": "base", "workload": "ingest", "throughputOpsPerSec": 400,
+                     "statuses": {"201": 1000, "429": 0},
+                     "correctedLatencyMs": {"p99": 20.0},
+                     "onlyInBaseline": 5}}
+        """);
+    JsonNode candidate = OM.readTree("""
+        {"summary": {"label": "cand", "workload": "ingest", "throughputOpsPerSec": 500,
+                     "statuses": {"201": 1200, "429": 30},
+                     "correctedLatencyMs": {"p99": 15.0}}}
+        """);
+
+    JsonNode out = Report.compare(baseline, candidate);
+
+    assertEquals("base", out.get("baseline").asText());
+    assertEquals("cand", out.get("candidate").asText());
+    JsonNode deltas = out.get("deltas");
+    assertEquals(0.25, deltas.at("/throughputOpsPerSec/change").asDouble());
+    assertEquals(-0.25, deltas.at("/correctedLatencyMs/p99/change").asDouble());
+    assertEquals(0.2, deltas.at("/statuses/201/change").asDouble());
+    // No relative change from zero, but both values are kept
+    assertTrue(deltas.at("/statuses/429/change").isMissingNode());
+    assertEquals(30.0, deltas.at("/statuses/429/candidate").asDouble());
+    assertFalse(deltas.has("onlyInBaseline"));
+    assertFalse(deltas.has("workload"));
+  }
+}
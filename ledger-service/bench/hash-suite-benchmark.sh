@@ -0,0 +1,17 @@
+#!/usr/bin/env bash
+# Per-event hashing cost of each hash suite (sha256-legacy, sha256, sha512-256).
+#
+#   bench/hash-suite-benchmark.sh [seconds per measurement] [event sizes, e.g. 256,1024,4096]
+#
+# Runs HashSuiteBenchmark from the test classes (mvn test-compile first) and
+# writes target/bench/hash-suites.jsonl. Compare nsPerEvent across suites at
+# the event sizes you actually ingest; the ranking depends on whether the CPU
+# has SHA extensions.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+OUT="target/bench"
+mkdir -p "$OUT"
+
+java -cp target/classes:target/test-classes com.proofpulse.ledger.crypto.HashSuiteBenchmark "$@" | tee "$OUT/hash-suites.jsonl"
@@ -0,0 +1,71 @@
+#!/usr/bin/env bash
+# Startup benchmark: time-to-first-ingest and RSS for each way of launching the ledger.
+#
+#   bench/startup-benchmark.sh [runs]
+#
+# Needs Postgres from infra/docker-compose.yml and a built jar (mvn package, or
+# mvn -Pcds[,aot] package for the cds/aot modes). Modes whose artifacts are
+# missing are skipped. Prints one JSON object per mode.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS="${1:-5}"
+PORT="${PP_BENCH_PORT:-18081}"
+JAR="target/ledger-service-0.1.0.jar"
+CDS_DIR="target/cds"
+
+now_ms() { date +%s%3N; }
+
+rss_kb() { awk '/VmRSS/ {print $2}' "/proc/$1/status"; }
+
+event_json() {
+  cat <<JSON
+{"schemaVersion":1,"eventId":"$(cat /proc/sys/kernel/random/uuid)","projectId":"bench-startup","artifactId":"run-$1","source":"bench","timestamp":"$(date -u +%Y-%m-%dT%H:%M:%SZ)","type":"STARTUP_PROBE","payload":{}}
+JSON
+}
+
+# run_mode <name> <workdir> <java args...>
+run_mode() {
+  local name="$1" dir="$2"
+  shift 2
+  local ingest_ms=() rss_settled=() rss_ingest=()
+
+  for i in $(seq 1 "$RUNS"); do
+    local start pid
+    start=$(now_ms)
+    (cd "$dir" && exec java -Dserver.port="$PORT" "$@") >/dev/null 2>&1 &
+    pid=$!
+
+    # Time to the first successful ingest, not just to "Started" in the log
+    until curl -sf -o /dev/null -H 'Content-Type: application/json' \
+        -d "$(event_json "$name-$i")" "http://localhost:$PORT/internal/ledger/events"; do
+      if ! kill -0 "$pid" 2>/dev/null; then echo "{\"mode\":\"$name\",\"error\":\"process exited\"}"; return; fi
+      sleep 0.05
+    done
+    ingest_ms+=($(( $(now_ms) - start )))
+    rss_ingest+=("$(rss_kb "$pid")")
+
+    # Settled RSS right after startup work is done
+    sleep 1
+    rss_settled+=("$(rss_kb "$pid")")
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+  done
+
+  printf '{"mode":"%s","runs":%d,"timeToFirstIngestMs":[%s],"rssAtFirstIngestKb":[%s],"rssSettledKb":[%s]}\n' \
+    "$name" "$RUNS" \
+    "$(IFS=,; echo "${ingest_ms[*]}")" \
+    "$(IFS=,; echo "${rss_ingest[*]}")" \
+    "$(IFS=,; echo "${rss_settled[*]}")"
+}
+
+[[ -f "$JAR" ]] && run_mode "jar" "." -jar "$JAR"
+
+if [[ -f "$CDS_DIR/app.jsa" ]]; then
+  run_mode "cds" "$CDS_DIR" -XX:SharedArchiveFile=app.jsa -jar ledger-service-0.1.0.jar
+  if unzip -l "$CDS_DIR/ledger-service-0.1.0.jar" 2>/dev/null | grep -q '__ApplicationContextInitializer'; then
+    run_mode "cds+aot" "$CDS_DIR" -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true -jar ledger-service-0.1.0.jar
+  fi
+fi
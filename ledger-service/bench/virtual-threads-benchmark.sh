@@ -0,0 +1,49 @@
+#!/usr/bin/env bash
+# Platform vs virtual threads under the same load.
+#
+#   bench/virtual-threads-benchmark.sh [loadgen args...]
+#
+# Starts the ledger jar once per mode (PP_VIRTUAL_THREADS=false/true), runs
+# ledger-loadgen against it, and writes target/bench/{platform,virtual}-*.json
+# plus a compare report per workload. Default load: skewed ingest (hot-chain
+# advisory lock waits) and verify (chain scans). Pinned virtual threads are
+# traced with -Djdk.tracePinnedThreads=short and counted in the output.
+# Needs Postgres from infra/docker-compose.yml, a built ledger jar, and
+# ledger-loadgen built with mvn package.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+PORT="${PP_BENCH_PORT:-18081}"
+JAR="target/ledger-service-0.1.0.jar"
+LOADGEN="../ledger-loadgen/target/ledger-loadgen-0.1.0.jar"
+OUT="target/bench"
+mkdir -p "$OUT"
+
+COMMON=(--baseUrl="http://localhost:$PORT" --chains=200 --skew=1.1 --concurrency=256 --duration=60 --warmup=15 "$@")
+
+run_mode() {
+  local mode="$1" virtual="$2"
+  PP_VIRTUAL_THREADS="$virtual" java -Djdk.tracePinnedThreads=short -Dserver.port="$PORT" -jar "$JAR" \
+    >"$OUT/$mode-server.log" 2>&1 &
+  local pid=$!
+  until curl -sf -o /dev/null "http://localhost:$PORT/health"; do
+    kill -0 "$pid" 2>/dev/null || { echo "ledger exited, see $OUT/$mode-server.log" >&2; exit 1; }
+    sleep 0.2
+  done
+
+  java -jar "$LOADGEN" --workload=ingest --rate=2000 --label="$mode-ingest" --out="$OUT/$mode-ingest.json" "${COMMON[@]}"
+  java -jar "$LOADGEN" --workload=verify --rate=200 --label="$mode-verify" --out="$OUT/$mode-verify.json" "${COMMON[@]}"
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  echo "{\"mode\":\"$mode\",\"pinnedThreadTraces\":$(grep -c 'monitors:' "$OUT/$mode-server.log" || true)}"
+}
+
+run_mode platform false
+run_mode virtual true
+
+for w in ingest verify; do
+  java -jar "$LOADGEN" compare "$OUT/platform-$w.json" "$OUT/virtual-$w.json" > "$OUT/compare-$w.json"
+  echo "wrote $OUT/compare-$w.json"
+done
@@ -0,0 +1,193 @@
+package com.proofpulse.ledger.api;
+
+import com.proofpulse.ledger.shard.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control for ingest: bounds in-flight appends per chain, per project
+ * and globally (tied to the combined shard connection pool size). Requests over a limit are
+ * rejected immediately instead of queueing on the chain's advisory lock, so one
+ * noisy tenant cannot exhaust request threads and connections for everyone.
+ *
+ * A rejection carries a Retry-After estimate: the moving average time an admitted
+ * append holds its slot, scaled by how full the rejecting scope is, i.e. roughly
+ * how long until the appends holding that scope have drained.
+ */
+@Component
+public class IngestAdmission {
+
+  private final int perChain =
+      Integer.parseInt(System.getenv().getOrDefault("PP_ADMIT_PER_CHAIN", "4"));
+  private final int perProject =
+      Integer.parseInt(System.getenv().getOrDefault("PP_ADMIT_PER_PROJECT", "16"));
+  private final int global;
+  private final int maxRetryAfterSeconds =
+      Integer.parseInt(System.getenv().getOrDefault("PP_ADMIT_MAX_RETRY_AFTER_SECONDS", "30"));
+
+  /** Moving average of how long an admitted append holds its slot (nanos). */
+  private final AtomicLong avgHoldNanos = new AtomicLong(TimeUnit.MILLISECONDS.toNanos(50));
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final Map<String, AtomicInteger> byProject = new ConcurrentHashMap<>();
+  private final Map<String, AtomicInteger> byChain = new ConcurrentHashMap<>();
+
+  private final Counter rejectedChain;
+  private final Counter rejectedProject;
+  private final Counter rejectedGlobal;
+
+  public IngestAdmission(ShardRouter shards, MeterRegistry metrics) {
+    // Leave a few connections for verify / scrubber / attestation traffic
+    int reserved = Integer.parseInt(System.getenv().getOrDefault("PP_ADMIT_RESERVED_CONNECTIONS", "2"));
+    int pool = shards.totalPoolSize();
+    this.global = Integer.parseInt(System.getenv().getOrDefault(
+        "PP_ADMIT_GLOBAL", String.valueOf(Math.max(1, pool - reserved))));
+
+    this.rejectedChain = metrics.counter("ledger.ingest.rejected", "scope", "chain");
+    this.rejectedProject = metrics.counter("ledger.ingest.rejected", "scope", "project");
+    this.rejectedGlobal = metrics.counter("ledger.ingest.rejected", "scope", "global");
+    Gauge.builder("ledger.ingest.inflight", inFlight, AtomicInteger::get)
+        .description("Ingest requests admitted and not yet finished (includes advisory lock waits)")
+        .register(metrics);
+    Gauge.builder("ledger.ingest.inflight.chains", byChain, Map::size).register(metrics);
+  }
+
+  /**
+   * Never blocks. The returned Admission must be closed when the append
+   * finishes; if it was not admitted it names the limit that was hit.
+   */
+  public Admission tryAdmit(String projectId, String artifactId) {
+    String chainKey = projectId + "|" + artifactId;
+
+    int occupied = inFlight.incrementAndGet();
+    if (occupied > global) {
+      inFlight.decrementAndGet();
+      rejectedGlobal.increment();
+      return Admission.rejected("global", global, retryAfterSeconds(occupied - 1, global));
+    }
+    occupied = acquire(byProject, projectId);
+    if (occupied > perProject) {
+      release(byProject, projectId);
+      inFlight.decrementAndGet();
+      rejectedProject.increment();
+      return Admission.rejected("project", perProject, retryAfterSeconds(occupied - 1, perProject));
+    }
+    occupied = acquire(byChain, chainKey);
+    if (occupied > perChain) {
+      release(byChain, chainKey);
+      release(byProject, projectId);
+      inFlight.decrementAndGet();
+      rejectedChain.increment();
+      return Admission.rejected("chain", perChain, retryAfterSeconds(occupied - 1, perChain));
+    }
+
+    long admittedAt = System.nanoTime();
+    return new Admission(null, 0, 0, () -> {
+      release(byChain, chainKey);
+      release(byProject, projectId);
+      inFlight.decrementAndGet();
+      long held = System.nanoTime() - admittedAt;
+      avgHoldNanos.updateAndGet(avg -> avg + (held - avg) / 10);
+    });
+  }
+
+  /**
+   * Seconds until a slot in a scope with `limit` slots and `occupied` holders is
+   * likely free: holders drain over about one average hold time each, limit at a
+   * time. At least 1, at most PP_ADMIT_MAX_RETRY_AFTER_SECONDS.
+   */
+  int retryAfterSeconds(int occupied, int limit) {
+    double rounds = Math.max(1, occupied) / (double) Math.max(1, limit);
+    long seconds = (long) Math.ceil(rounds * avgHoldNanos.get() / 1e9);
+    return (int) Math.min(maxRetryAfterSeconds, Math.max(1, seconds));
+  }
+
+  public Map<String, Object> snapshot() {
+    Map<String, Object> m = new LinkedHashMap<>();
+    m.put("inFlight", inFlight.get());
+    m.put("globalLimit", global);
+    m.put("perProjectLimit", perProject);
+    m.put("perChainLimit", perChain);
+    m.put("avgHoldMs", avgHoldNanos.get() / 1_000_000.0);
+    m.put("rejected", Map.of(
+        "global", (long) rejectedGlobal.count(),
+        "project", (long) rejectedProject.count(),
+        "chain", (long) rejectedChain.count()
+    ));
+    m.put("busiestChains", busiest(byChain));
+    m.put("busiestProjects", busiest(byProject));
+    return m;
+  }
+
+  private static List<Map<String, Object>> busiest(Map<String, AtomicInteger> counts) {
+    return counts.entrySet().stream()
+        .sorted((a, b) -> Integer.compare(b.getValue().get(), a.getValue().get()))
+        .limit(10)
+        .map(e -> Map.<String, Object>of("key", e.getKey(), "inFlight", e.getValue().get()))
+        .toList();
+  }
+
+  private static int acquire(Map<String, AtomicInteger> counts, String key) {
+    int[] now = new int[1];
+    counts.compute(key, (k, v) -> {
+      if (v == null) v = new AtomicInteger();
+      now[0] = v.incrementAndGet();
+      return v;
+    });
+    return now[0];
+  }
+
+  private static void release(Map<String, AtomicInteger> counts, String key) {
+    // Drop the entry at zero so idle chains do not accumulate
+    counts.computeIfPresent(key, (k, v) -> v.decrementAndGet() <= 0 ? null : v);
+  }
+
+  public static final class Admission implements AutoCloseable {
+    private final String rejectedScope;
+    private final int limit;
+    private final int retryAfterSeconds;
+    private final Runnable onClose;
+
+    private Admission(String rejectedScope, int limit, int retryAfterSeconds, Runnable onClose) {
+      this.rejectedScope = rejectedScope;
+      this.limit = limit;
+      this.retryAfterSeconds = retryAfterSeconds;
+      this.onClose = onClose;
+    }
+
+    static Admission rejected(String scope, int limit, int retryAfterSeconds) {
+      return new Admission(scope, limit, retryAfterSeconds, null);
+    }
+
+    public boolean admitted() {
+      return rejectedScope == null;
+    }
+
+    /** "chain", "project" or "global" when rejected. */
+    public String rejectedScope() {
+      return rejectedScope;
+    }
+
+    public int limit() {
+      return limit;
+    }
+
+    /** Suggested Retry-After when rejected. */
+    public int retryAfterSeconds() {
+      return retryAfterSeconds;
+    }
+
+    @Override
+    public void close() {
+      if (onClose != null) onClose.run();
+    }
+  }
+}
@@ -1,116 +1,232 @@
 package com.proofpulse.ledger.api;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.proofpulse.ledger.crypto.CanonicalJson;
+import com.proofpulse.ledger.chain.ChainVerificationService;
 import com.proofpulse.ledger.crypto.EventCanonical;
+import com.proofpulse.ledger.crypto.HashSuite;
+import com.proofpulse.ledger.storage.PayloadOffloader;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.sql.Timestamp;
 import java.time.Instant;
-import java.util.HexFormat;
-import java.util.Map;
-import java.util.UUID;
+import java.util.*;
 
 @RestController
 @RequestMapping("/internal/ledger")
 public class InternalLedgerController {
 
-  private final JdbcTemplate jdbc;
-  private final ObjectMapper om;
-
-  public InternalLedgerController(JdbcTemplate jdbc, ObjectMapper om) {
-    this.jdbc = jdbc;
-    this.om = om;
+  static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+  private final int maxBatchSize =
+      Integer.parseInt(System.getenv().getOrDefault("PP_INGEST_BATCH_MAX", "500"));
+
+  private final RecentEventCache recentEvents;
+  private final IngestAdmission admission;
+  private final LedgerAppender appender;
+  private final ChainVerificationService chains;
+
+  public InternalLedgerController(
+      RecentEventCache recentEvents,
+      IngestAdmission admission,
+      LedgerAppender appender,
+      ChainVerificationService chains
+  ) {
+    this.recentEvents = recentEvents;
+    this.admission = admission;
+    this.appender = appender;
+    this.chains = chains;
   }
 
-  @PostMapping("/events")
-  @Transactional
-  public ResponseEntity<?> ingest(@RequestBody String rawJson) {
+  /** JSON, CBOR or Smile body; the response uses the format asked for in Accept. */
+  @PostMapping(value = "/events", consumes = {
+      MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE
+  })
+  public ResponseEntity<?> ingest(@RequestBody JsonNode n) {
     try {
-      JsonNode n = om.readTree(rawJson);
+      return ingestOne(n);
+    } catch (Exception e) {
+      String msg = (e.getCause() != null) ? e.getCause().getMessage() : e.getMessage();
+      return ResponseEntity.status(500).body(Map.of("error", "Ledger insert failed", "message", msg));
+    }
+  }
 
-      int schemaVersion = n.get("schemaVersion").asInt();
-      UUID eventId = UUID.fromString(n.get("eventId").asText());
-      String projectId = n.get("projectId").asText();
-      String artifactId = n.get("artifactId").asText();
-      String source = n.get("source").asText();
-      String type = n.get("type").asText();
-      Instant ts = Instant.parse(n.get("timestamp").asText());
+  /**
+   * Appends a JSON array of events in order, each in its own chain transaction.
+   * Returns one result per event with the status the single-event endpoint would have used.
+   */
+  @PostMapping(value = "/events/batch", consumes = {
+      MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE
+  })
+  @SuppressWarnings("unchecked")
+  public ResponseEntity<?> ingestBatch(@RequestBody JsonNode events) {
+    if (!events.isArray()) {
+      return ResponseEntity.badRequest().body(Map.of("error", "Expected an array of events"));
+    }
+    if (events.size() > maxBatchSize) {
+      return ResponseEntity.status(413).body(Map.of("error", "Batch too large", "limit", maxBatchSize));
+    }
 
-      JsonNode payloadNode = n.has("payload") ? n.get("payload") : EventCanonical.mapper().createObjectNode();
+    List<Map<String, Object>> results = new ArrayList<>();
+    for (JsonNode n : events) {
+      ResponseEntity<?> one;
+      try {
+        one = ingestOne(n);
+      } catch (Exception e) {
+        String msg = (e.getCause() != null) ? e.getCause().getMessage() : e.getMessage();
+        one = ResponseEntity.status(500).body(Map.of("error", "Ledger insert failed", "message", String.valueOf(msg)));
+      }
+      Map<String, Object> r = new LinkedHashMap<>();
+      r.put("status", one.getStatusCode().value());
+      r.putAll((Map<String, Object>) one.getBody());
+      results.add(r);
+    }
+    return ResponseEntity.ok(Map.of("results", results));
+  }
 
-      // ✅ canonical payload string we store in jsonb
-      String payloadCanonical = CanonicalJson.canonicalize(payloadNode);
+  private ResponseEntity<?> ingestOne(JsonNode n) throws Exception {
+    int schemaVersion = n.get("schemaVersion").asInt();
+    UUID eventId = UUID.fromString(n.get("eventId").asText());
+    String projectId = n.get("projectId").asText();
+    String artifactId = n.get("artifactId").asText();
+    String source = n.get("source").asText();
+    String type = n.get("type").asText();
+    Instant ts = Instant.parse(n.get("timestamp").asText());
+
+    JsonNode payloadNode = n.has("payload") ? n.get("payload") : EventCanonical.mapper().createObjectNode();
+    if (PayloadOffloader.usesReservedField(payloadNode)) {
+      return ResponseEntity.badRequest().body(Map.of(
+          "error", "Reserved payload field",
+          "field", PayloadOffloader.REF_FIELD
+      ));
+    }
 
-      // ✅ advisory lock (do not use queryForObject)
-      String lockKey = projectId + "|" + artifactId;
-      jdbc.update("SELECT pg_advisory_xact_lock(hashtext(?))", lockKey);
+    HashSuite genesisSuite;
+    try {
+      genesisSuite = n.hasNonNull("hashSuite") ? HashSuite.byName(n.get("hashSuite").asText()) : null;
+    } catch (IllegalArgumentException unknown) {
+      return ResponseEntity.badRequest().body(Map.of("error", unknown.getMessage()));
+    }
 
-      Long lastIndex = jdbc.query(
-          "SELECT MAX(chain_index) FROM evidence_events WHERE project_id=? AND artifact_id=?",
-          ps -> { ps.setString(1, projectId); ps.setString(2, artifactId); },
-          rs -> { rs.next(); return (Long) rs.getObject(1); }
-      );
+    // ✅ recently seen eventId: answer from memory before admission or the chain lock;
+    // anything older is caught by the eventId claim in the append transaction
+    RecentEventCache.Entry seen = recentEvents.cached(eventId);
+    if (seen != null) {
+      return replay(seen, schemaVersion, eventId, projectId, artifactId, source, ts, type, payloadNode);
+    }
 
-      long nextIndex = (lastIndex == null) ? 0L : (lastIndex + 1L);
+    // ✅ fail fast instead of queueing on a saturated chain / project / pool
+    try (IngestAdmission.Admission admitted = admission.tryAdmit(projectId, artifactId)) {
+      if (!admitted.admitted()) return tooBusy(admitted);
 
-      String prevHash = null;
-      if (nextIndex > 0) {
-        prevHash = jdbc.query(
-            "SELECT event_hash FROM evidence_events WHERE project_id=? AND artifact_id=? AND chain_index=?",
-            ps -> { ps.setString(1, projectId); ps.setString(2, artifactId); ps.setLong(3, nextIndex - 1); },
-            rs -> rs.next() ? rs.getString(1) : null
-        );
-      }
-
-      // ✅ SINGLE SOURCE of canonical event JSON (shared with verifier)
-      String canonicalEvent = EventCanonical.canonicalEventJson(
-          schemaVersion, eventId, projectId, artifactId, source, ts, type, EventCanonical.mapper().readTree(payloadCanonical)
+      RecentEventCache.Entry appended = appender.append(
+          schemaVersion, eventId, projectId, artifactId, source, ts, type, payloadNode, genesisSuite
       );
+      if (appended == null) {
+        // Lost the eventId claim to a concurrent append; compare against it like any replay
+        RecentEventCache.Entry original = recentEvents.find(eventId);
+        if (original == null) return duplicate(eventId, null);
+        return replay(original, schemaVersion, eventId, projectId, artifactId, source, ts, type, payloadNode);
+      }
 
-      String eventHash = sha256Hex((prevHash == null ? "" : prevHash) + "|" + canonicalEvent);
-
-      jdbc.update("""
-          INSERT INTO evidence_events
-            (event_id, schema_version, project_id, artifact_id, source, ts, type, payload, chain_index, prev_hash, event_hash)
-          VALUES
-            (?, ?, ?, ?, ?, ?, ?, (?::jsonb), ?, ?, ?)
-          """,
-          eventId,
-          schemaVersion,
-          projectId,
-          artifactId,
-          source,
-          Timestamp.from(ts),
-          type,
-          payloadCanonical,
-          nextIndex,
-          prevHash,
-          eventHash
-      );
+      return ResponseEntity.ok(body(eventId, appended));
+    }
+  }
 
-      return ResponseEntity.ok(Map.of(
-          "ok", true,
+  /**
+   * A retried eventId is only idempotent if it is the same event: 409 with the
+   * original position when it is, 409 with an error when the eventId was reused
+   * for a different event.
+   */
+  private ResponseEntity<?> replay(
+      RecentEventCache.Entry seen,
+      int schemaVersion,
+      UUID eventId,
+      String projectId,
+      String artifactId,
+      String source,
+      Instant ts,
+      String type,
+      JsonNode payloadNode
+  ) throws Exception {
+    RecentEventCache.Entry stored = withHashes(seen);
+    if (stored == null) return duplicate(eventId, null);
+
+    if (!appender.isSameEvent(stored, schemaVersion, eventId, projectId, artifactId, source, ts, type, payloadNode)) {
+      return ResponseEntity.status(409).body(Map.of(
+          "error", "eventId already used for a different event",
           "eventId", eventId.toString(),
-          "chainIndex", nextIndex,
-          "prevHash", prevHash,
-          "eventHash", eventHash
+          "projectId", stored.projectId(),
+          "artifactId", stored.artifactId(),
+          "chainIndex", stored.chainIndex()
       ));
-    } catch (Exception e) {
-      String msg = (e.getCause() != null) ? e.getCause().getMessage() : e.getMessage();
-      return ResponseEntity.status(500).body(Map.of("error", "Ledger insert failed", "message", msg));
     }
+    return duplicate(eventId, stored);
+  }
+
+  /** Sealed events, and events stored away from their claim shard, resolve without hashes; read them from the chain. */
+  @SuppressWarnings("unchecked")
+  private RecentEventCache.Entry withHashes(RecentEventCache.Entry e) throws Exception {
+    if (e.eventHash() != null) return e;
+
+    List<Map<String, Object>> events =
+        (List<Map<String, Object>>) chains.exportEvents(e.projectId(), e.artifactId(), e.chainIndex(), 1).get("events");
+    if (events.isEmpty() || ((Number) events.get(0).get("chainIndex")).longValue() != e.chainIndex()) return null;
+
+    Map<String, Object> stored = events.get(0);
+    return new RecentEventCache.Entry(
+        e.projectId(),
+        e.artifactId(),
+        e.chainIndex(),
+        (String) stored.get("prevHash"),
+        (String) stored.get("eventHash"),
+        HashSuite.byName((String) stored.get("hashSuite")).id()
+    );
+  }
+
+  @GetMapping("/admission")
+  public Map<String, Object> admissionStatus() {
+    return admission.snapshot();
+  }
+
+  private static ResponseEntity<?> tooBusy(IngestAdmission.Admission rejected) {
+    return ResponseEntity.status(429)
+        .header("Retry-After", String.valueOf(rejected.retryAfterSeconds()))
+        .body(Map.of(
+            "error", "Too many in-flight ingest requests",
+            "scope", rejected.rejectedScope(),
+            "limit", rejected.limit(),
+            "retryAfterSeconds", rejected.retryAfterSeconds()
+        ));
+  }
+
+  /**
+   * 409 carrying the original chain position, so retries are idempotent for the caller.
+   * original is null when the position could not be read back (the claim is known to exist).
+   */
+  private static ResponseEntity<?> duplicate(UUID eventId, RecentEventCache.Entry original) {
+    Map<String, Object> m;
+    if (original != null) {
+      m = body(eventId, original);
+    } else {
+      m = new LinkedHashMap<>();
+      m.put("ok", true);
+      m.put("eventId", eventId.toString());
+    }
+    m.put("duplicate", true);
+    return ResponseEntity.status(409).body(m);
   }
 
-  private static String sha256Hex(String s) throws Exception {
-    MessageDigest md = MessageDigest.getInstance("SHA-256");
-    byte[] dig = md.digest(s.getBytes(StandardCharsets.UTF_8));
-    return HexFormat.of().formatHex(dig);
+  private static Map<String, Object> body(UUID eventId, RecentEventCache.Entry e) {
+    // LinkedHashMap: prevHash is null for chainIndex 0, which Map.of rejects
+    Map<String, Object> m = new LinkedHashMap<>();
+    m.put("ok", true);
+    m.put("eventId", eventId.toString());
+    m.put("projectId", e.projectId());
+    m.put("artifactId", e.artifactId());
+    m.put("chainIndex", e.chainIndex());
+    m.put("prevHash", e.prevHash());
+    m.put("eventHash", e.eventHash());
+    return m;
   }
 }
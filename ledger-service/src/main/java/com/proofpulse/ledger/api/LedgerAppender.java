@@ -0,0 +1,242 @@
+package com.proofpulse.ledger.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.proofpulse.ledger.chain.ChainAppended;
+import com.proofpulse.ledger.crypto.CanonicalJson;
+import com.proofpulse.ledger.crypto.EventCanonical;
+import com.proofpulse.ledger.crypto.HashSuite;
+import com.proofpulse.ledger.shard.Shard;
+import com.proofpulse.ledger.shard.ShardRouter;
+import com.proofpulse.ledger.stats.RollupService;
+import com.proofpulse.ledger.storage.PayloadOffloader;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Appends one event to its chain under the per-chain advisory lock, in a
+ * transaction on the chain's shard. Kept out of the controller so the transaction
+ * (and its pooled connection) only starts once the request has passed the
+ * duplicate check and admission.
+ *
+ * eventIds are unique across all shards: each is claimed in evidence_event_ids
+ * on the shard picked by {@link ShardRouter#forEventId}, which is usually not
+ * the chain's shard when PP_SHARD_URLS lists several databases.
+ */
+@Service
+public class LedgerAppender {
+
+  private final ShardRouter shards;
+  private final RecentEventCache recentEvents;
+  private final ApplicationEventPublisher events;
+  private final RollupService rollups;
+  private final PayloadOffloader offloader;
+
+  public LedgerAppender(
+      ShardRouter shards,
+      RecentEventCache recentEvents,
+      ApplicationEventPublisher events,
+      RollupService rollups,
+      PayloadOffloader offloader
+  ) {
+    this.shards = shards;
+    this.recentEvents = recentEvents;
+    this.events = events;
+    this.rollups = rollups;
+    this.offloader = offloader;
+  }
+
+  /**
+   * True when the event stored at {@code stored} is this event: its canonical JSON
+   * (with the payload as it would be stored) hashes to the stored event_hash under
+   * the chain's suite. stored must carry its hashes.
+   */
+  public boolean isSameEvent(
+      RecentEventCache.Entry stored,
+      int schemaVersion,
+      UUID eventId,
+      String projectId,
+      String artifactId,
+      String source,
+      Instant ts,
+      String type,
+      JsonNode payloadNode
+  ) throws Exception {
+    String payloadCanonical = CanonicalJson.canonicalize(payloadNode);
+    JsonNode ref = offloader.reference(payloadCanonical);
+    String storedPayload = ref != null ? CanonicalJson.canonicalize(ref) : payloadCanonical;
+
+    String canonicalEvent = EventCanonical.canonicalEventJson(
+        schemaVersion, eventId, projectId, artifactId, source, ts, type, EventCanonical.mapper().readTree(storedPayload)
+    );
+    return HashSuite.byId(stored.hashAlg()).eventHash(stored.prevHash(), canonicalEvent).equals(stored.eventHash());
+  }
+
+  /**
+   * Returns the new chain position, or null if the eventId was committed concurrently.
+   * genesisSuite picks the hash suite when this event creates the chain (null: PP_HASH_SUITE);
+   * an existing chain keeps its own suite.
+   */
+  public RecentEventCache.Entry append(
+      int schemaVersion,
+      UUID eventId,
+      String projectId,
+      String artifactId,
+      String source,
+      Instant ts,
+      String type,
+      JsonNode payloadNode,
+      HashSuite genesisSuite
+  ) throws Exception {
+    // ✅ canonical payload string we store in jsonb
+    String payloadCanonical = CanonicalJson.canonicalize(payloadNode);
+
+    // ✅ large payloads go to the blob store by content hash; the row (and the event hash) cover the reference
+    JsonNode offloaded = offloader.offload(payloadCanonical);
+    final String storedPayload = offloaded != null ? CanonicalJson.canonicalize(offloaded) : payloadCanonical;
+
+    // ✅ SINGLE SOURCE of canonical event JSON (shared with verifier); computed before taking the lock
+    String canonicalEvent = EventCanonical.canonicalEventJson(
+        schemaVersion, eventId, projectId, artifactId, source, ts, type, EventCanonical.mapper().readTree(storedPayload)
+    );
+
+    Shard shard = shards.forChain(projectId, artifactId);
+    JdbcTemplate jdbc = shard.jdbc();
+
+    return shard.tx().execute(status -> {
+      // ✅ advisory lock (do not use queryForObject)
+      String lockKey = projectId + "|" + artifactId;
+      jdbc.update("SELECT pg_advisory_xact_lock(hashtext(?))", lockKey);
+
+      Long lastIndex = jdbc.query(
+          "SELECT MAX(chain_index) FROM evidence_events WHERE project_id=? AND artifact_id=?",
+          ps -> { ps.setString(1, projectId); ps.setString(2, artifactId); },
+          rs -> { rs.next(); return (Long) rs.getObject(1); }
+      );
+
+      long nextIndex = (lastIndex == null) ? 0L : (lastIndex + 1L);
+
+      // ✅ a chain keeps the hash suite of its genesis row
+      String prevHash = null;
+      HashSuite suite = (genesisSuite != null) ? genesisSuite : HashSuite.forNewChains();
+      if (nextIndex > 0) {
+        Object[] prev = jdbc.query(
+            "SELECT event_hash, hash_alg FROM evidence_events WHERE project_id=? AND artifact_id=? AND chain_index=?",
+            ps -> { ps.setString(1, projectId); ps.setString(2, artifactId); ps.setLong(3, nextIndex - 1); },
+            rs -> rs.next() ? new Object[]{rs.getString(1), rs.getInt(2)} : null
+        );
+        if (prev != null) {
+          prevHash = (String) prev[0];
+          suite = HashSuite.byId((Integer) prev[1]);
+        }
+      }
+
+      String eventHash = suite.eventHash(prevHash, canonicalEvent);
+
+      // Lost a race with a concurrent retry of the same eventId (committed under another chain lock)
+      if (!claim(shard, eventId, projectId, artifactId, nextIndex)) return null;
+
+      jdbc.update("""
+          INSERT INTO evidence_events
+            (event_id, schema_version, project_id, artifact_id, source, ts, type, payload, chain_index, prev_hash, event_hash, hash_alg)
+          VALUES
+            (?, ?, ?, ?, ?, ?, ?, (?::jsonb), ?, ?, ?, ?)
+          """,
+          eventId,
+          schemaVersion,
+          projectId,
+          artifactId,
+          source,
+          Timestamp.from(ts),
+          type,
+          storedPayload,
+          nextIndex,
+          prevHash,
+          eventHash,
+          suite.id()
+      );
+
+      rollups.count(jdbc, projectId, artifactId, type, source, ts);
+
+      RecentEventCache.Entry appended = new RecentEventCache.Entry(projectId, artifactId, nextIndex, prevHash, eventHash, suite.id());
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          recentEvents.remember(eventId, appended);
+          events.publishEvent(new ChainAppended(projectId, artifactId, nextIndex, eventHash, eventId, type));
+        }
+      });
+      return appended;
+    });
+  }
+
+  /**
+   * Claims eventId for the new position, under the chain lock. On the chain's own
+   * shard the claim is part of the append transaction. On another shard it commits
+   * by itself: it is deleted again if the append rolls back, and a claim a crash
+   * left behind in this chain (its position does not hold the event) is taken over.
+   */
+  private boolean claim(Shard shard, UUID eventId, String projectId, String artifactId, long nextIndex) {
+    Shard claims = shards.forEventId(eventId);
+    int claimed = claims.jdbc().update("""
+        INSERT INTO evidence_event_ids (event_id, project_id, artifact_id, chain_index)
+        VALUES (?, ?, ?, ?)
+        ON CONFLICT (event_id) DO NOTHING
+        """,
+        eventId, projectId, artifactId, nextIndex
+    );
+    if (claims == shard) return claimed == 1;
+
+    if (claimed == 0) {
+      Long stale = staleClaim(shard.jdbc(), claims.jdbc(), eventId, projectId, artifactId, nextIndex);
+      if (stale == null) return false;
+      claimed = claims.jdbc().update(
+          "UPDATE evidence_event_ids SET chain_index=? WHERE event_id=? AND project_id=? AND artifact_id=? AND chain_index=?",
+          nextIndex, eventId, projectId, artifactId, stale
+      );
+      if (claimed == 0) return false;
+    }
+
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        if (status != STATUS_ROLLED_BACK) return;
+        claims.jdbc().update(
+            "DELETE FROM evidence_event_ids WHERE event_id=? AND project_id=? AND artifact_id=? AND chain_index=?",
+            eventId, projectId, artifactId, nextIndex
+        );
+      }
+    });
+    return true;
+  }
+
+  /**
+   * The chain index of eventId's claim if it points into this chain at a position
+   * that does not hold the event (past the head, or another event's row), else null.
+   * Sealed positions are not read and count as held.
+   */
+  private static Long staleClaim(
+      JdbcTemplate jdbc, JdbcTemplate claimsJdbc, UUID eventId, String projectId, String artifactId, long nextIndex
+  ) {
+    Long claimedIndex = claimsJdbc.query(
+        "SELECT chain_index FROM evidence_event_ids WHERE event_id=? AND project_id=? AND artifact_id=?",
+        ps -> { ps.setObject(1, eventId); ps.setString(2, projectId); ps.setString(3, artifactId); },
+        rs -> rs.next() ? rs.getLong(1) : null
+    );
+    if (claimedIndex == null) return null;
+    if (claimedIndex >= nextIndex) return claimedIndex;
+
+    String heldBy = jdbc.query(
+        "SELECT event_id FROM evidence_events WHERE project_id=? AND artifact_id=? AND chain_index=?",
+        ps -> { ps.setString(1, projectId); ps.setString(2, artifactId); ps.setLong(3, claimedIndex); },
+        rs -> rs.next() ? rs.getString("event_id") : null
+    );
+    return (heldBy != null && !heldBy.equals(eventId.toString())) ? claimedIndex : null;
+  }
+}
@@ -0,0 +1,97 @@
+package com.proofpulse.ledger.api;
+
+import com.proofpulse.ledger.chain.ChainRepaired;
+import com.proofpulse.ledger.shard.ShardRouter;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bounded LRU of recently appended eventIds -> chain position.
+ * Lets ingest answer retried events without taking the chain lock or a connection.
+ * {@link #find} falls back to the evidence_event_ids primary key lookup on the eventId's claim shard.
+ * Events already moved to a sealed segment, or stored on another shard than their
+ * claim, resolve with null hashes (and hashAlg 0).
+ * Positions a repair rewrote are dropped, so replays compare against the new hashes.
+ */
+@Component
+public class RecentEventCache {
+
+  private final int capacity =
+      Integer.parseInt(System.getenv().getOrDefault("PP_EVENT_ID_CACHE_SIZE", "100000"));
+
+  private final Map<UUID, Entry> recent = new LinkedHashMap<UUID, Entry>(1024, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<UUID, RecentEventCache.Entry> eldest) {
+      return size() > capacity;
+    }
+  };
+
+  private final ShardRouter shards;
+
+  public RecentEventCache(ShardRouter shards) {
+    this.shards = shards;
+  }
+
+  /** The remembered chain position for eventId, or null; never queries a shard. */
+  public Entry cached(UUID eventId) {
+    synchronized (recent) {
+      return recent.get(eventId);
+    }
+  }
+
+  /** Returns the stored chain position for eventId, or null if it was never appended. */
+  public Entry find(UUID eventId) {
+    Entry hit = cached(eventId);
+    if (hit != null) return hit;
+
+    Entry stored = shards.forEventId(eventId).jdbc().query(
+        """
+        SELECT i.project_id, i.artifact_id, i.chain_index, e.prev_hash, e.event_hash, e.hash_alg
+        FROM evidence_event_ids i
+        LEFT JOIN evidence_events e
+          ON e.project_id = i.project_id AND e.artifact_id = i.artifact_id AND e.chain_index = i.chain_index
+        WHERE i.event_id=?
+        """,
+        ps -> ps.setObject(1, eventId),
+        rs -> rs.next()
+            ? new Entry(
+                rs.getString("project_id"),
+                rs.getString("artifact_id"),
+                rs.getLong("chain_index"),
+                rs.getString("prev_hash"),
+                rs.getString("event_hash"),
+                rs.getInt("hash_alg"))
+            : null
+    );
+
+    if (stored != null) remember(eventId, stored);
+    return stored;
+  }
+
+  public void remember(UUID eventId, Entry entry) {
+    synchronized (recent) {
+      recent.put(eventId, entry);
+    }
+  }
+
+  @EventListener
+  public void onRepaired(ChainRepaired e) {
+    synchronized (recent) {
+      recent.values().removeIf(p -> p.chainIndex() >= e.fromIndex()
+          && p.projectId().equals(e.projectId()) && p.artifactId().equals(e.artifactId()));
+    }
+  }
+
+  public record Entry(
+      String projectId,
+      String artifactId,
+      long chainIndex,
+      String prevHash,
+      String eventHash,
+      int hashAlg
+  ) {}
+}
@@ -1,10 +1,13 @@
 package com.proofpulse.ledger.attest;
 
+import com.proofpulse.ledger.chain.ChainVerificationService;
+import com.proofpulse.ledger.crypto.CanonicalJson;
 import com.proofpulse.ledger.storage.BlobStore;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestController
@@ -12,10 +15,22 @@ public class AttestationController {
 
   private final AttestationService attest;
   private final BlobStore blobStore;
+  private final AttestationIndex index;
+  private final AttestationRefresher refresher;
+  private final ChainVerificationService verifier;
 
-  public AttestationController(AttestationService attest, BlobStore blobStore) {
+  public AttestationController(
+      AttestationService attest,
+      BlobStore blobStore,
+      AttestationIndex index,
+      AttestationRefresher refresher,
+      ChainVerificationService verifier
+  ) {
     this.attest = attest;
     this.blobStore = blobStore;
+    this.index = index;
+    this.refresher = refresher;
+    this.verifier = verifier;
   }
 
   @PostMapping("/attestations/generate")
@@ -37,6 +52,47 @@ public class AttestationController {
     }
   }
 
+  /**
+   * Latest indexed attestation of a chain, without verifying or signing.
+   * current is true when it covers the chain's present head; otherwise a
+   * refresh is queued and refreshPending says whether one is on its way.
+   * refreshError is set while the chain cannot be re-attested.
+   */
+  @GetMapping("/attestations/latest")
+  public ResponseEntity<?> latest(@RequestParam String projectId, @RequestParam String artifactId) {
+    try {
+      AttestationIndex.Entry e = index.find(projectId, artifactId);
+      if (e == null) return ResponseEntity.status(404).body(Map.of("error", "No attestation indexed for chain"));
+
+      Map<String, Object> head = verifier.head(projectId, artifactId);
+      boolean current = head != null
+          && ((Number) head.get("headChainIndex")).longValue() == e.headChainIndex()
+          && e.headHash().equals(head.get("headHash"));
+
+      Map<String, Object> m = new LinkedHashMap<>();
+      m.put("projectId", projectId);
+      m.put("artifactId", artifactId);
+      m.put("bundleId", e.bundleId());
+      m.put("headChainIndex", e.headChainIndex());
+      m.put("headHash", e.headHash());
+      m.put("issuedAt", e.issuedAt().toString());
+      m.put("current", current);
+      m.put("currentHeadChainIndex", head == null ? null : head.get("headChainIndex"));
+      // A stale entry (repair, missed appends while down) queues its own refresh
+      if (!current) refresher.request(projectId, artifactId);
+      m.put("refreshPending", !current && refresher.refreshPending(projectId, artifactId));
+      m.put("refreshError", e.refreshError());
+      m.put("refreshFailedAt", e.refreshFailedAt() == null ? null : e.refreshFailedAt().toString());
+      m.put("bundle", CanonicalJson.mapper().readTree(e.bundle()));
+      return ResponseEntity.ok(m);
+    } catch (Exception ex) {
+      return ResponseEntity.status(500).body(Map.of(
+          "error", "Attestation lookup failed",
+          "message", String.valueOf(ex.getMessage())
+      ));
+    }
+  }
+
   @GetMapping("/attestations/{bundleId}")
   public ResponseEntity<?> download(@PathVariable String bundleId) {
     try {
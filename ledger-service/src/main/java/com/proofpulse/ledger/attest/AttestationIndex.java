@@ -0,0 +1,85 @@
+package com.proofpulse.ledger.attest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * attestation_index: the latest issued attestation per chain. Entries only
+ * move forward, so a slow refresh never replaces a newer head.
+ */
+@Component
+public class AttestationIndex {
+
+  private final JdbcTemplate jdbc;
+
+  public AttestationIndex(JdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  public Entry find(String projectId, String artifactId) {
+    return jdbc.query("""
+        SELECT head_chain_index, head_hash, bundle_id, bundle, issued_at, refresh_error, refresh_failed_at
+        FROM attestation_index
+        WHERE project_id=? AND artifact_id=?
+        """,
+        ps -> { ps.setString(1, projectId); ps.setString(2, artifactId); },
+        rs -> rs.next()
+            ? new Entry(
+                projectId,
+                artifactId,
+                rs.getLong("head_chain_index"),
+                rs.getString("head_hash"),
+                rs.getString("bundle_id"),
+                rs.getString("bundle"),
+                rs.getTimestamp("issued_at").toInstant(),
+                rs.getString("refresh_error"),
+                rs.getTimestamp("refresh_failed_at") == null ? null : rs.getTimestamp("refresh_failed_at").toInstant())
+            : null
+    );
+  }
+
+  void record(Entry e) {
+    jdbc.update("""
+        INSERT INTO attestation_index
+          (project_id, artifact_id, head_chain_index, head_hash, bundle_id, bundle, issued_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?)
+        ON CONFLICT (project_id, artifact_id) DO UPDATE SET
+          head_chain_index = EXCLUDED.head_chain_index,
+          head_hash = EXCLUDED.head_hash,
+          bundle_id = EXCLUDED.bundle_id,
+          bundle = EXCLUDED.bundle,
+          issued_at = EXCLUDED.issued_at,
+          refresh_error = NULL,
+          refresh_failed_at = NULL
+        WHERE attestation_index.head_chain_index <= EXCLUDED.head_chain_index
+        """,
+        e.projectId, e.artifactId, e.headChainIndex, e.headHash, e.bundleId, e.bundle, Timestamp.from(e.issuedAt)
+    );
+  }
+
+  /** Keeps the last good attestation but records why it could not be refreshed. */
+  void recordFailure(String projectId, String artifactId, String error) {
+    jdbc.update("""
+        UPDATE attestation_index
+        SET refresh_error = ?, refresh_failed_at = now()
+        WHERE project_id=? AND artifact_id=?
+        """,
+        error, projectId, artifactId
+    );
+  }
+
+  public record Entry(
+      String projectId,
+      String artifactId,
+      long headChainIndex,
+      String headHash,
+      String bundleId,
+      String bundle,
+      Instant issuedAt,
+      String refreshError,
+      Instant refreshFailedAt
+  ) {}
+}
@@ -0,0 +1,189 @@
+package com.proofpulse.ledger.attest;
+
+import com.proofpulse.ledger.chain.ChainAppended;
+import com.proofpulse.ledger.chain.ChainRepaired;
+import com.proofpulse.ledger.chain.ChainVerificationService;
+import com.proofpulse.ledger.config.ThreadMode;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * Re-issues the indexed attestation of a chain after its head moves.
+ *
+ * Appends are coalesced per chain: a chain is refreshed once it has been quiet
+ * for the debounce interval, or after the max delay if it never goes quiet.
+ * Only one refresh per chain runs at a time; appends during a refresh queue the
+ * next one. A refresh verifies only the suffix after the indexed head (linked to
+ * its signed head hash) and signs the new head. When that link no longer holds
+ * (e.g. the chain was repaired at or below the indexed head, including a head
+ * rewritten in place with nothing appended after it) the whole chain is
+ * verified instead; if it is invalid, the failure is recorded in the index.
+ * Repairs and reads of a stale entry through /attestations/latest queue a
+ * refresh too.
+ *
+ * By default only chains already in the index (attested once via
+ * POST /attestations/generate) are kept current; PP_ATTEST_REFRESH_ALL=true
+ * attests every appended chain.
+ */
+@Component
+public class AttestationRefresher {
+
+  private static final Logger log = LoggerFactory.getLogger(AttestationRefresher.class);
+
+  private static final int MAX_PENDING = 10_000;
+
+  private final boolean enabled =
+      Boolean.parseBoolean(System.getenv().getOrDefault("PP_ATTEST_REFRESH_ENABLED", "true"));
+  private final boolean allChains =
+      Boolean.parseBoolean(System.getenv().getOrDefault("PP_ATTEST_REFRESH_ALL", "false"));
+  private final long debounceNanos = TimeUnit.MILLISECONDS.toNanos(
+      Long.parseLong(System.getenv().getOrDefault("PP_ATTEST_REFRESH_DEBOUNCE_MS", "2000")));
+  private final long maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(
+      Long.parseLong(System.getenv().getOrDefault("PP_ATTEST_REFRESH_MAX_DELAY_MS", "30000")));
+
+  private final ChainVerificationService verifier;
+  private final AttestationService attest;
+  private final AttestationIndex index;
+  private final ThreadPoolExecutor executor;
+
+  private final Map<ChainKey, Pending> pending = new ConcurrentHashMap<>();
+  private final Set<ChainKey> running = ConcurrentHashMap.newKeySet();
+
+  public AttestationRefresher(ChainVerificationService verifier, AttestationService attest, AttestationIndex index) {
+    this.verifier = verifier;
+    this.attest = attest;
+    this.index = index;
+
+    int threads = Integer.parseInt(System.getenv().getOrDefault("PP_ATTEST_REFRESH_THREADS", "2"));
+    int queue = Integer.parseInt(System.getenv().getOrDefault("PP_ATTEST_REFRESH_QUEUE", "256"));
+    this.executor = new ThreadPoolExecutor(
+        threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queue),
+        ThreadMode.factory("attest-refresh"),
+        new ThreadPoolExecutor.AbortPolicy()
+    );
+  }
+
+  @EventListener
+  public void onAppended(ChainAppended e) {
+    request(e.projectId(), e.artifactId());
+  }
+
+  @EventListener
+  public void onRepaired(ChainRepaired e) {
+    request(e.projectId(), e.artifactId());
+  }
+
+  /** Queues a (debounced) refresh of the chain's indexed attestation. */
+  public void request(String projectId, String artifactId) {
+    if (!enabled) return;
+    ChainKey key = new ChainKey(projectId, artifactId);
+    // Overflow is fine: /attestations/latest reports the entry as not current
+    if (pending.size() >= MAX_PENDING && !pending.containsKey(key)) return;
+
+    long now = System.nanoTime();
+    pending.merge(key, new Pending(now, now), (old, fresh) -> new Pending(old.firstNanos, now));
+  }
+
+  /** True while a head change of the chain is waiting for (or running) its refresh. */
+  public boolean refreshPending(String projectId, String artifactId) {
+    ChainKey key = new ChainKey(projectId, artifactId);
+    return pending.containsKey(key) || running.contains(key);
+  }
+
+  @Scheduled(fixedDelay = 250)
+  public void dispatch() {
+    long now = System.nanoTime();
+    for (Map.Entry<ChainKey, Pending> e : pending.entrySet()) {
+      Pending p = e.getValue();
+      long due = Math.min(p.lastNanos + debounceNanos, p.firstNanos + maxDelayNanos);
+      if (now - due < 0) continue;
+
+      ChainKey key = e.getKey();
+      if (!running.add(key)) continue; // coalesced into the refresh after the running one
+
+      // Removed before the refresh reads the head, so any append after this point queues another
+      pending.remove(key);
+      try {
+        executor.execute(() -> {
+          try {
+            refresh(key.projectId, key.artifactId);
+          } finally {
+            running.remove(key);
+          }
+        });
+      } catch (RejectedExecutionException full) {
+        running.remove(key);
+        pending.putIfAbsent(key, p);
+        return;
+      }
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  /** Runs one refresh now, on the calling thread. */
+  void refresh(String projectId, String artifactId) {
+    ChainKey key = new ChainKey(projectId, artifactId);
+    try {
+      AttestationIndex.Entry last = index.find(key.projectId, key.artifactId);
+      if (last == null && !allChains) return;
+
+      Map<String, Object> report = null;
+      if (last != null) {
+        Map<String, Object> head = verifier.head(key.projectId, key.artifactId);
+        long headIndex = (head == null) ? -1 : ((Number) head.get("headChainIndex")).longValue();
+        if (headIndex == last.headChainIndex() && last.headHash().equals(head.get("headHash"))) return;
+
+        // Only a head past the signed one has a suffix to link to it; a head rewritten in
+        // place would pass a suffix check with no rows, so that is verified in full below
+        if (headIndex > last.headChainIndex()) {
+          report = verifier.verifyFrom(key.projectId, key.artifactId,
+              last.headChainIndex() + 1, last.headHash(), ChainVerificationService.Progress.NONE);
+          // Suffix no longer links to the signed head: fall back to the whole chain
+          if (report != null && !Boolean.TRUE.equals(report.get("valid"))) report = null;
+        }
+      }
+      if (report == null) report = verifier.verify(key.projectId, key.artifactId);
+
+      if (!Boolean.TRUE.equals(report.get("valid"))) {
+        log.warn("attestation refresh skipped, chain {}/{} failed verification at {}: {}",
+            key.projectId, key.artifactId, report.get("firstMismatchIndex"), report.get("reason"));
+        if (last != null) {
+          index.recordFailure(key.projectId, key.artifactId,
+              "verification failed at " + report.get("firstMismatchIndex") + ": " + report.get("reason"));
+        }
+        return;
+      }
+      if (last != null
+          && ((Number) report.get("headChainIndex")).longValue() == last.headChainIndex()
+          && last.headHash().equals(report.get("headHash"))) {
+        return;
+      }
+
+      attest.issue(key.projectId, key.artifactId, null, report);
+    } catch (Exception ex) {
+      log.warn("attestation refresh failed for {}/{}: {}", key.projectId, key.artifactId, ex.getMessage());
+      try {
+        index.recordFailure(key.projectId, key.artifactId, "refresh error: " + ex.getMessage());
+      } catch (Exception ignored) {
+        // index unreachable too; the entry simply stays as it was
+      }
+    }
+  }
+
+  private record ChainKey(String projectId, String artifactId) {}
+
+  private record Pending(long firstNanos, long lastNanos) {}
+}
@@ -19,11 +19,18 @@ public class AttestationService {
   private final ChainVerificationService verifier;
   private final KeyManager keys;
   private final BlobStore blobStore;
+  private final AttestationIndex index;
 
-  public AttestationService(ChainVerificationService verifier, KeyManager keys, BlobStore blobStore) {
+  public AttestationService(
+      ChainVerificationService verifier,
+      KeyManager keys,
+      BlobStore blobStore,
+      AttestationIndex index
+  ) {
     this.verifier = verifier;
     this.keys = keys;
     this.blobStore = blobStore;
+    this.index = index;
   }
 
   public Map<String, Object> generateAndStore(String projectId, String artifactId, String issuer) throws Exception {
@@ -33,10 +40,30 @@ public class AttestationService {
       return Map.of("error", "Chain is invalid", "verification", report);
     }
 
+    String bundleId = issue(projectId, artifactId, issuer, report);
+
+    if (blobStore instanceof S3BlobStore s3) {
+      return Map.of(
+          "bundleId", bundleId,
+          "downloadUrl", s3.presignedGetUrl(bundleId),
+          "expiresInMinutes", Long.parseLong(System.getenv().getOrDefault("PP_S3_PRESIGN_MINUTES", "15"))
+      );
+    }
+
+    return Map.of("bundleId", bundleId, "downloadEndpoint", "/attestations/" + bundleId);
+  }
+
+  /**
+   * Signs and stores an attestation for the head in a valid verification
+   * report and records it in the attestation index. Returns the bundle id.
+   */
+  String issue(String projectId, String artifactId, String issuer, Map<String, Object> report) throws Exception {
+    Instant issuedAt = Instant.now();
+
     Map<String, Object> payload = new LinkedHashMap<>();
     payload.put("schemaVersion", 1);
     payload.put("type", "EVIDENCE_LEDGER_ATTESTATION");
-    payload.put("issuedAt", Instant.now().toString());
+    payload.put("issuedAt", issuedAt.toString());
     payload.put("issuer", issuer == null ? "proofpulse-ledger-service" : issuer);
     payload.put("projectId", projectId);
     payload.put("artifactId", artifactId);
@@ -63,18 +90,22 @@ public class AttestationService {
     });
 
     String bundleId = UUID.randomUUID().toString();
-    byte[] bytes = CanonicalJson.stringify(bundle).getBytes(java.nio.charset.StandardCharsets.UTF_8);
+    String bundleJson = CanonicalJson.stringify(bundle);
+    byte[] bytes = bundleJson.getBytes(java.nio.charset.StandardCharsets.UTF_8);
 
     blobStore.put(bundleId, bytes);
 
-    if (blobStore instanceof S3BlobStore s3) {
-      return Map.of(
-          "bundleId", bundleId,
-          "downloadUrl", s3.presignedGetUrl(bundleId),
-          "expiresInMinutes", Long.parseLong(System.getenv().getOrDefault("PP_S3_PRESIGN_MINUTES", "15"))
-      );
-    }
-
-    return Map.of("bundleId", bundleId, "downloadEndpoint", "/attestations/" + bundleId);
+    index.record(new AttestationIndex.Entry(
+        projectId,
+        artifactId,
+        ((Number) report.get("headChainIndex")).longValue(),
+        (String) report.get("headHash"),
+        bundleId,
+        bundleJson,
+        issuedAt,
+        null,
+        null
+    ));
+    return bundleId;
   }
 }
@@ -0,0 +1,15 @@
+package com.proofpulse.ledger.chain;
+
+import java.util.UUID;
+
+/**
+ * Published (in-process) after an ingest transaction commits a new chain head.
+ */
+public record ChainAppended(
+    String projectId,
+    String artifactId,
+    long chainIndex,
+    String eventHash,
+    UUID eventId,
+    String type
+) {}
@@ -0,0 +1,178 @@
+package com.proofpulse.ledger.chain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.proofpulse.ledger.crypto.EventCanonical;
+import com.proofpulse.ledger.storage.BlobStore;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Sealed chain segments: gzip'd JSON-lines blobs in the BlobStore plus a
+ * chain_segments manifest row on the chain's shard.
+ */
+@Component
+public class ChainArchive {
+
+  public record Segment(
+      long firstIndex,
+      long lastIndex,
+      String firstPrevHash,
+      String lastEventHash,
+      long eventCount,
+      String blobKey,
+      String contentSha256,
+      long byteSize
+  ) {}
+
+  private static final ObjectMapper OM = EventCanonical.mapper();
+
+  private final BlobStore blobs;
+
+  public ChainArchive(BlobStore blobs) {
+    this.blobs = blobs;
+  }
+
+  /** Manifest of one chain, ordered by first_index. */
+  public List<Segment> segments(JdbcTemplate jdbc, String projectId, String artifactId) {
+    return jdbc.query("""
+        SELECT first_index, last_index, first_prev_hash, last_event_hash, event_count, blob_key, content_sha256, byte_size
+        FROM chain_segments
+        WHERE project_id=? AND artifact_id=?
+        ORDER BY first_index ASC
+        """,
+        ps -> { ps.setString(1, projectId); ps.setString(2, artifactId); },
+        (rs, i) -> new Segment(
+            rs.getLong("first_index"),
+            rs.getLong("last_index"),
+            rs.getString("first_prev_hash"),
+            rs.getString("last_event_hash"),
+            rs.getLong("event_count"),
+            rs.getString("blob_key"),
+            rs.getString("content_sha256"),
+            rs.getLong("byte_size")
+        )
+    );
+  }
+
+  static Segment covering(List<Segment> segments, long index) {
+    for (Segment s : segments) {
+      if (s.firstIndex() <= index && index <= s.lastIndex()) return s;
+    }
+    return null;
+  }
+
+  static Segment nextAfter(List<Segment> segments, long index) {
+    for (Segment s : segments) {
+      if (s.firstIndex() > index) return s;
+    }
+    return null;
+  }
+
+  /** Downloads and decodes a segment, checking the blob against the manifest's content hash. */
+  public List<ChainVerificationService.Row> read(Segment segment) throws Exception {
+    return read(segment, segment.firstIndex(), Integer.MAX_VALUE);
+  }
+
+  /**
+   * Like {@link #read(Segment)}, decoding only up to limit rows from fromIndex:
+   * earlier lines are skipped unparsed (line n is chain index firstIndex + n)
+   * and the stream is closed once the page is full.
+   */
+  public List<ChainVerificationService.Row> read(Segment segment, long fromIndex, int limit) throws Exception {
+    byte[] blob = blobs.getObject(segment.blobKey());
+    if (!sha256Hex(blob).equals(segment.contentSha256())) {
+      throw new IllegalStateException("archived segment content hash mismatch: " + segment.blobKey());
+    }
+
+    List<ChainVerificationService.Row> rows = new ArrayList<>();
+    try (BufferedReader in = new BufferedReader(new InputStreamReader(
+        new GZIPInputStream(new ByteArrayInputStream(blob)), StandardCharsets.UTF_8))) {
+      long index = segment.firstIndex();
+      String line;
+      while (rows.size() < limit && (line = in.readLine()) != null) {
+        if (index++ < fromIndex) continue;
+        rows.add(decode(line));
+      }
+    }
+    return rows;
+  }
+
+  private static ChainVerificationService.Row decode(String line) throws IOException {
+    JsonNode n = OM.readTree(line);
+    return new ChainVerificationService.Row(
+        UUID.fromString(n.get("eventId").asText()),
+        n.get("schemaVersion").asInt(),
+        n.get("projectId").asText(),
+        n.get("artifactId").asText(),
+        n.get("source").asText(),
+        Instant.parse(n.get("timestamp").asText()),
+        n.get("type").asText(),
+        n.get("payload").asText(),
+        n.get("chainIndex").asLong(),
+        n.hasNonNull("prevHash") ? n.get("prevHash").asText() : null,
+        n.get("eventHash").asText(),
+        n.path("hashAlg").asInt(0)
+    );
+  }
+
+  /** Encodes and uploads rows (contiguous, already verified); the manifest row is written by the caller. */
+  Segment write(String projectId, String artifactId, List<ChainVerificationService.Row> rows) throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (Writer out = new OutputStreamWriter(new GZIPOutputStream(bytes), StandardCharsets.UTF_8)) {
+      for (ChainVerificationService.Row r : rows) {
+        ObjectNode n = OM.createObjectNode();
+        n.put("eventId", r.eventId().toString());
+        n.put("schemaVersion", r.schemaVersion());
+        n.put("projectId", r.projectId());
+        n.put("artifactId", r.artifactId());
+        n.put("source", r.source());
+        n.put("timestamp", r.ts().toString());
+        n.put("type", r.type());
+        n.put("payload", r.payloadJsonCanonical());
+        n.put("chainIndex", r.chainIndex());
+        n.put("prevHash", r.prevHash());
+        n.put("eventHash", r.eventHash());
+        n.put("hashAlg", r.hashAlg());
+        out.write(OM.writeValueAsString(n));
+        out.write('\n');
+      }
+    }
+    byte[] blob = bytes.toByteArray();
+
+    ChainVerificationService.Row first = rows.get(0);
+    ChainVerificationService.Row last = rows.get(rows.size() - 1);
+
+    // Chain ids may contain '/', '.', ':' - key the directory by a hash instead
+    String chainDir = sha256Hex((projectId + "|" + artifactId).getBytes(StandardCharsets.UTF_8));
+    String key = "segments/" + chainDir + "/" + first.chainIndex() + "-" + last.chainIndex() + ".jsonl.gz";
+    blobs.putObject(key, blob, "application/gzip");
+
+    return new Segment(
+        first.chainIndex(),
+        last.chainIndex(),
+        first.prevHash(),
+        last.eventHash(),
+        rows.size(),
+        key,
+        sha256Hex(blob),
+        blob.length
+    );
+  }
+
+  private static String sha256Hex(byte[] data) throws Exception {
+    return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+  }
+}
@@ -0,0 +1,11 @@
+package com.proofpulse.ledger.chain;
+
+/**
+ * Published by the scrubber the first time a chain that was valid fails verification.
+ */
+public record ChainMismatchDetected(
+    String projectId,
+    String artifactId,
+    Long firstMismatchIndex,
+    String reason
+) {}
@@ -0,0 +1,12 @@
+package com.proofpulse.ledger.chain;
+
+/**
+ * Published (in-process) after a repair commits rewritten hashes from fromIndex to the head.
+ * prevHash is the unchanged event_hash of fromIndex - 1 (null when the repair started at genesis).
+ */
+public record ChainRepaired(
+    String projectId,
+    String artifactId,
+    long fromIndex,
+    String prevHash
+) {}
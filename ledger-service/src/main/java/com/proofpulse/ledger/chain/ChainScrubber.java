@@ -0,0 +1,437 @@
+package com.proofpulse.ledger.chain;
+
+import com.proofpulse.ledger.shard.Shard;
+import com.proofpulse.ledger.shard.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Continuously re-verifies chains in the background.
+ *
+ * Every tick spends a rows/sec token budget: first on the new suffix of chains
+ * that were appended to recently, then on a full re-scan of the next chain in
+ * a cycle over all chains of all shards. Ticks are skipped while any shard's
+ * connection pool has no headroom so the scrubber never competes with ingest.
+ * Sealed segments are linked by their manifest boundary hashes, not downloaded.
+ * A repair rewinds the chain's checkpoint to the start of the rewritten suffix
+ * and clears its mismatch, so the next pass re-checks the new hashes.
+ *
+ * ledger.scrub.chains.verified.within{le} counts chains by time since their
+ * last verification (cumulative buckets, le in seconds) without a series per chain;
+ * the exact age of one chain is on the status endpoint.
+ */
+@Component
+public class ChainScrubber {
+
+  private static final Logger log = LoggerFactory.getLogger(ChainScrubber.class);
+
+  private static final int MAX_HOT_CHAINS = 10_000;
+
+  /** Bucket bounds (seconds) of ledger.scrub.chains.verified.within; a +Inf bucket follows. */
+  private static final long[] AGE_BUCKETS = {60, 600, 3_600, 21_600, 86_400};
+
+  private final boolean enabled =
+      Boolean.parseBoolean(System.getenv().getOrDefault("PP_SCRUB_ENABLED", "true"));
+  private final double rowsPerSecond =
+      Double.parseDouble(System.getenv().getOrDefault("PP_SCRUB_ROWS_PER_SEC", "2000"));
+  /** Connections that must stay free for request threads before the scrubber takes one. */
+  private final int reservedConnections =
+      Integer.parseInt(System.getenv().getOrDefault("PP_SCRUB_RESERVED_CONNECTIONS", "4"));
+  /** Minimum time between two full cycles over all chains. */
+  private final long minCycleSeconds =
+      Long.parseLong(System.getenv().getOrDefault("PP_SCRUB_MIN_CYCLE_SECONDS", "3600"));
+
+  private final JdbcTemplate jdbc;
+  private final ShardRouter shards;
+  private final ChainVerificationService verifier;
+  private final ApplicationEventPublisher events;
+
+  private final Set<ChainKey> hot = ConcurrentHashMap.newKeySet();
+  private final Queue<ChainRepaired> repaired = new ConcurrentLinkedQueue<>();
+
+  // Touched only from the scheduler thread
+  private double tokens;
+  private long lastRefillNanos = System.nanoTime();
+  private int coldShard;
+  private ChainKey coldCursor;
+  private ColdScan cold;
+  private Instant cycleStartedAt;
+  private long lastStatsNanos;
+
+  private final Counter rowsVerified;
+  private final Counter mismatches;
+  private final Counter skippedTicks;
+  private volatile double oldestVerificationAgeSeconds;
+  private volatile double invalidChains;
+  private volatile double[] chainsVerifiedWithin = new double[AGE_BUCKETS.length + 1];
+
+  public ChainScrubber(
+      JdbcTemplate jdbc,
+      ShardRouter shards,
+      ChainVerificationService verifier,
+      ApplicationEventPublisher events,
+      MeterRegistry metrics
+  ) {
+    this.jdbc = jdbc;
+    this.shards = shards;
+    this.verifier = verifier;
+    this.events = events;
+
+    this.rowsVerified = metrics.counter("ledger.scrub.rows.verified");
+    this.mismatches = metrics.counter("ledger.scrub.mismatches");
+    this.skippedTicks = metrics.counter("ledger.scrub.ticks.skipped");
+    Gauge.builder("ledger.scrub.oldest.verification.age", this, s -> s.oldestVerificationAgeSeconds)
+        .baseUnit("seconds")
+        .description("Time since the least recently verified chain was verified")
+        .register(metrics);
+    Gauge.builder("ledger.scrub.chains.invalid", this, s -> s.invalidChains).register(metrics);
+    Gauge.builder("ledger.scrub.chains.pending", hot, Set::size).register(metrics);
+    for (int i = 0; i <= AGE_BUCKETS.length; i++) {
+      int bucket = i;
+      Gauge.builder("ledger.scrub.chains.verified.within", this, s -> s.chainsVerifiedWithin[bucket])
+          .tag("le", i < AGE_BUCKETS.length ? String.valueOf(AGE_BUCKETS[i]) : "+Inf")
+          .description("Chains last verified at most le seconds ago")
+          .register(metrics);
+    }
+  }
+
+  @EventListener
+  public void onAppended(ChainAppended e) {
+    // Overflow is fine: the cold cycle reaches every chain eventually
+    if (hot.size() < MAX_HOT_CHAINS) hot.add(new ChainKey(e.projectId(), e.artifactId()));
+  }
+
+  @EventListener
+  public void onRepaired(ChainRepaired e) {
+    // Applied on the scheduler thread, which owns the in-progress cold scan
+    repaired.add(e);
+  }
+
+  @Scheduled(fixedDelay = 1000)
+  public void tick() {
+    if (!enabled) return;
+
+    long now = System.nanoTime();
+    tokens = Math.min(rowsPerSecond, tokens + rowsPerSecond * (now - lastRefillNanos) / 1e9);
+    lastRefillNanos = now;
+    if (tokens <= 0) return;
+
+    if (!poolHasHeadroom()) {
+      skippedTicks.increment();
+      return;
+    }
+
+    try {
+      rewindRepaired();
+
+      Iterator<ChainKey> it = hot.iterator();
+      while (tokens > 0 && it.hasNext()) {
+        ChainKey k = it.next();
+        it.remove();
+        incremental(k);
+      }
+
+      while (tokens > 0 && advanceCold()) {
+        // keep scanning cold chains while budget remains
+      }
+
+      if (now - lastStatsNanos > 30_000_000_000L) {
+        refreshStats();
+        lastStatsNanos = now;
+      }
+    } catch (Exception ex) {
+      log.warn("chain scrub tick failed", ex);
+    }
+  }
+
+  /** Scrubber state for one chain, or null if it was never scrubbed. */
+  public Map<String, Object> status(String projectId, String artifactId) {
+    List<Map<String, Object>> rows = jdbc.queryForList("""
+        SELECT verified_next_index, valid, first_mismatch_index, mismatch_reason,
+               last_verified_at, last_full_scan_at,
+               EXTRACT(EPOCH FROM (now() - last_verified_at)) AS seconds_since_verified
+        FROM chain_scrub_state
+        WHERE project_id=? AND artifact_id=?
+        """,
+        projectId, artifactId
+    );
+    if (rows.isEmpty()) return null;
+    Map<String, Object> r = rows.get(0);
+
+    Map<String, Object> m = new LinkedHashMap<>();
+    m.put("projectId", projectId);
+    m.put("artifactId", artifactId);
+    m.put("valid", r.get("valid"));
+    m.put("verifiedEvents", r.get("verified_next_index"));
+    m.put("firstMismatchIndex", r.get("first_mismatch_index"));
+    m.put("reason", r.get("mismatch_reason"));
+    m.put("lastVerifiedAt", instant(r.get("last_verified_at")));
+    m.put("lastFullScanAt", instant(r.get("last_full_scan_at")));
+    m.put("secondsSinceVerified", r.get("seconds_since_verified"));
+    return m;
+  }
+
+  private void incremental(ChainKey k) {
+    State prior = loadState(k);
+    if (prior != null && !prior.valid) return; // already reported; the cold cycle re-checks after repair
+
+    Checkpoint cp = prior == null
+        ? new Checkpoint(0L, null)
+        : new Checkpoint(prior.nextIndex, prior.prevHash);
+
+    Map<String, Object> report = verifier.verifyIncremental(k.projectId, k.artifactId, cp.nextIndex, cp.prevHash, budgeted(cp));
+    if (report == null) {
+      // Out of budget mid-suffix: keep what was verified and continue next tick
+      saveCheckpoint(k, cp);
+      hot.add(k);
+      return;
+    }
+    record(k, prior, report, cp, false);
+  }
+
+  /**
+   * Moves the checkpoint of each repaired chain back to where its hashes were
+   * rewritten (it may not resume from a hash that is gone) and clears its
+   * mismatch, then queues the chain so the new suffix is verified next.
+   */
+  void rewindRepaired() {
+    ChainRepaired e;
+    while ((e = repaired.poll()) != null) {
+      ChainKey k = new ChainKey(e.projectId(), e.artifactId());
+      // SET expressions see the old row, so the CASE tests the old checkpoint
+      jdbc.update("""
+          UPDATE chain_scrub_state SET
+            verified_next_index = LEAST(verified_next_index, ?),
+            verified_hash = CASE WHEN verified_next_index > ? THEN ? ELSE verified_hash END,
+            valid = TRUE,
+            first_mismatch_index = NULL,
+            mismatch_reason = NULL
+          WHERE project_id=? AND artifact_id=?
+          """,
+          e.fromIndex(), e.fromIndex(), e.prevHash(), k.projectId, k.artifactId
+      );
+      if (cold != null && cold.key.equals(k) && cold.checkpoint.nextIndex > e.fromIndex()) {
+        cold = new ColdScan(k, new Checkpoint(e.fromIndex(), e.prevHash()));
+      }
+      hot.add(k);
+    }
+  }
+
+  /** Returns false when there is nothing (more) to scan right now. */
+  private boolean advanceCold() {
+    if (cold == null) {
+      ChainKey next = nextColdChain();
+      if (next == null) {
+        // Wrapped around: start a new cycle, but not more often than minCycleSeconds
+        if (cycleStartedAt != null && cycleStartedAt.plusSeconds(minCycleSeconds).isAfter(Instant.now())) {
+          return false;
+        }
+        coldShard = 0;
+        coldCursor = null;
+        next = nextColdChain();
+        if (next == null) return false;
+        cycleStartedAt = Instant.now();
+      }
+      if (cycleStartedAt == null) cycleStartedAt = Instant.now();
+      cold = new ColdScan(next, new Checkpoint(0L, null));
+    }
+
+    ChainKey k = cold.key;
+    Checkpoint cp = cold.checkpoint;
+    Map<String, Object> report = verifier.verifyIncremental(k.projectId, k.artifactId, cp.nextIndex, cp.prevHash, budgeted(cp));
+    if (report == null) return false;
+
+    record(k, loadState(k), report, cp, true);
+    coldCursor = k;
+    cold = null;
+    return true;
+  }
+
+  /**
+   * Progress callback that spends tokens per verified page and stops when the
+   * budget is gone. Sealed segments linked by their manifest hashes cost nothing.
+   */
+  ChainVerificationService.Progress budgeted(Checkpoint cp) {
+    return new ChainVerificationService.Progress() {
+      @Override
+      public boolean checkpoint(long nextIndex, String prevHash, long totalEvents) {
+        long done = nextIndex - cp.nextIndex;
+        tokens -= done;
+        rowsVerified.increment(done);
+        cp.nextIndex = nextIndex;
+        cp.prevHash = prevHash;
+        return tokens > 0;
+      }
+
+      @Override
+      public boolean linked(long nextIndex, String prevHash, long totalEvents) {
+        cp.nextIndex = nextIndex;
+        cp.prevHash = prevHash;
+        return tokens > 0;
+      }
+    };
+  }
+
+  private void record(ChainKey k, State prior, Map<String, Object> report, Checkpoint cp, boolean fullScan) {
+    if ("no_chain".equals(report.get("reason"))) return;
+
+    boolean valid = Boolean.TRUE.equals(report.get("valid"));
+    if (valid) {
+      jdbc.update("""
+          INSERT INTO chain_scrub_state
+            (project_id, artifact_id, verified_next_index, verified_hash, valid, last_verified_at, last_full_scan_at)
+          VALUES (?, ?, ?, ?, TRUE, now(), CASE WHEN ? THEN now() END)
+          ON CONFLICT (project_id, artifact_id) DO UPDATE SET
+            verified_next_index = EXCLUDED.verified_next_index,
+            verified_hash = EXCLUDED.verified_hash,
+            valid = TRUE,
+            first_mismatch_index = NULL,
+            mismatch_reason = NULL,
+            last_verified_at = now(),
+            last_full_scan_at = COALESCE(EXCLUDED.last_full_scan_at, chain_scrub_state.last_full_scan_at)
+          """,
+          k.projectId, k.artifactId, cp.nextIndex, cp.prevHash, fullScan
+      );
+      return;
+    }
+
+    Long mismatchIndex = report.get("firstMismatchIndex") == null
+        ? null
+        : ((Number) report.get("firstMismatchIndex")).longValue();
+    String reason = (String) report.get("reason");
+
+    jdbc.update("""
+        INSERT INTO chain_scrub_state
+          (project_id, artifact_id, valid, first_mismatch_index, mismatch_reason, last_verified_at, last_full_scan_at)
+        VALUES (?, ?, FALSE, ?, ?, now(), CASE WHEN ? THEN now() END)
+        ON CONFLICT (project_id, artifact_id) DO UPDATE SET
+          valid = FALSE,
+          first_mismatch_index = EXCLUDED.first_mismatch_index,
+          mismatch_reason = EXCLUDED.mismatch_reason,
+          last_verified_at = now(),
+          last_full_scan_at = COALESCE(EXCLUDED.last_full_scan_at, chain_scrub_state.last_full_scan_at)
+        """,
+        k.projectId, k.artifactId, mismatchIndex, reason, fullScan
+    );
+
+    if (prior == null || prior.valid) {
+      mismatches.increment();
+      log.error("Chain verification mismatch project={} artifact={} index={} reason={}",
+          k.projectId, k.artifactId, mismatchIndex, reason);
+      events.publishEvent(new ChainMismatchDetected(k.projectId, k.artifactId, mismatchIndex, reason));
+    }
+  }
+
+  private void saveCheckpoint(ChainKey k, Checkpoint cp) {
+    jdbc.update("""
+        INSERT INTO chain_scrub_state (project_id, artifact_id, verified_next_index, verified_hash)
+        VALUES (?, ?, ?, ?)
+        ON CONFLICT (project_id, artifact_id) DO UPDATE SET
+          verified_next_index = EXCLUDED.verified_next_index,
+          verified_hash = EXCLUDED.verified_hash
+        """,
+        k.projectId, k.artifactId, cp.nextIndex, cp.prevHash
+    );
+  }
+
+  private State loadState(ChainKey k) {
+    return jdbc.query(
+        "SELECT verified_next_index, verified_hash, valid FROM chain_scrub_state WHERE project_id=? AND artifact_id=?",
+        ps -> { ps.setString(1, k.projectId); ps.setString(2, k.artifactId); },
+        rs -> rs.next()
+            ? new State(rs.getLong("verified_next_index"), rs.getString("verified_hash"), rs.getBoolean("valid"))
+            : null
+    );
+  }
+
+  /** Next chain of the cycle: shards in order, chains in index order within a shard. */
+  private ChainKey nextColdChain() {
+    List<Shard> all = shards.all();
+    while (coldShard < all.size()) {
+      ChainKey next = nextChainAfter(all.get(coldShard).jdbc(), coldCursor);
+      if (next != null) return next;
+      coldShard++;
+      coldCursor = null;
+    }
+    return null;
+  }
+
+  /** Walks distinct chains in index order via the chain-position primary key (one probe per chain). */
+  static ChainKey nextChainAfter(JdbcTemplate jdbc, ChainKey after) {
+    if (after == null) {
+      return jdbc.query(
+          "SELECT project_id, artifact_id FROM evidence_events ORDER BY project_id, artifact_id LIMIT 1",
+          rs -> rs.next() ? new ChainKey(rs.getString(1), rs.getString(2)) : null
+      );
+    }
+    return jdbc.query("""
+        SELECT project_id, artifact_id FROM evidence_events
+        WHERE (project_id, artifact_id) > (?, ?)
+        ORDER BY project_id, artifact_id
+        LIMIT 1
+        """,
+        ps -> { ps.setString(1, after.projectId); ps.setString(2, after.artifactId); },
+        rs -> rs.next() ? new ChainKey(rs.getString(1), rs.getString(2)) : null
+    );
+  }
+
+  private boolean poolHasHeadroom() {
+    return shards.all().stream().allMatch(s -> s.hasHeadroom(reservedConnections));
+  }
+
+  private void refreshStats() {
+    StringBuilder within = new StringBuilder();
+    for (long bound : AGE_BUCKETS) {
+      within.append(", COUNT(*) FILTER (WHERE last_verified_at >= now() - make_interval(secs => ")
+          .append(bound).append(")) AS within_").append(bound);
+    }
+    jdbc.query("""
+        SELECT COALESCE(EXTRACT(EPOCH FROM (now() - MIN(last_verified_at))), 0) AS oldest,
+               COUNT(*) FILTER (WHERE NOT valid) AS invalid,
+               COUNT(last_verified_at) AS verified
+        """ + within + " FROM chain_scrub_state",
+        rs -> {
+          oldestVerificationAgeSeconds = rs.getDouble("oldest");
+          invalidChains = rs.getLong("invalid");
+          double[] counts = new double[AGE_BUCKETS.length + 1];
+          for (int i = 0; i < AGE_BUCKETS.length; i++) counts[i] = rs.getLong("within_" + AGE_BUCKETS[i]);
+          counts[AGE_BUCKETS.length] = rs.getLong("verified");
+          chainsVerifiedWithin = counts;
+        }
+    );
+  }
+
+  private static String instant(Object ts) {
+    return ts == null ? null : ((Timestamp) ts).toInstant().toString();
+  }
+
+  record ChainKey(String projectId, String artifactId) {}
+
+  private record State(long nextIndex, String prevHash, boolean valid) {}
+
+  private record ColdScan(ChainKey key, Checkpoint checkpoint) {}
+
+  static final class Checkpoint {
+    long nextIndex;
+    String prevHash;
+
+    Checkpoint(long nextIndex, String prevHash) {
+      this.nextIndex = nextIndex;
+      this.prevHash = prevHash;
+    }
+  }
+}
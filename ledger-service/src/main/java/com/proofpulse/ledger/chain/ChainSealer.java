@@ -0,0 +1,149 @@
+package com.proofpulse.ledger.chain;
+
+import com.proofpulse.ledger.shard.Shard;
+import com.proofpulse.ledger.shard.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Moves old, verified chain prefixes out of evidence_events into sealed
+ * segments in the BlobStore (see {@link ChainArchive}).
+ *
+ * A segment is a contiguous run of rows right after the chain's last sealed
+ * segment, all inserted before the cutoff. The head row is never sealed, so
+ * appends keep reading prev_hash from the hot table. The blob is uploaded
+ * before the chain lock is taken; the manifest insert and the row delete then
+ * commit together under the lock, after re-checking the rows are unchanged.
+ */
+@Component
+public class ChainSealer {
+
+  private static final Logger log = LoggerFactory.getLogger(ChainSealer.class);
+
+  private final boolean enabled =
+      Boolean.parseBoolean(System.getenv().getOrDefault("PP_SEAL_ENABLED", "false"));
+  /** Rows inserted longer ago than this are eligible for sealing. */
+  private final int afterDays =
+      Integer.parseInt(System.getenv().getOrDefault("PP_SEAL_AFTER_DAYS", "90"));
+  private final int segmentRows =
+      Integer.parseInt(System.getenv().getOrDefault("PP_SEAL_SEGMENT_ROWS", "10000"));
+  /** Smaller runs are left hot until more rows age out, to avoid tiny blobs. */
+  private final int minSegmentRows =
+      Integer.parseInt(System.getenv().getOrDefault("PP_SEAL_MIN_SEGMENT_ROWS", "1000"));
+
+  private final ShardRouter shards;
+  private final ChainArchive archive;
+
+  public ChainSealer(ShardRouter shards, ChainArchive archive) {
+    this.shards = shards;
+    this.archive = archive;
+  }
+
+  @Scheduled(fixedDelay = 600_000, initialDelay = 60_000)
+  public void sealAll() {
+    if (!enabled) return;
+
+    for (Shard shard : shards.all()) {
+      ChainScrubber.ChainKey k = ChainScrubber.nextChainAfter(shard.jdbc(), null);
+      while (k != null) {
+        try {
+          // Several segments per chain per run, until the cold prefix is used up
+          while (sealNext(shard, k.projectId(), k.artifactId())) { }
+        } catch (Exception ex) {
+          log.warn("sealing failed project={} artifact={}: {}", k.projectId(), k.artifactId(), ex.getMessage());
+        }
+        k = ChainScrubber.nextChainAfter(shard.jdbc(), k);
+      }
+    }
+  }
+
+  /** Seals one segment of the chain. Returns false when nothing (more) is eligible. */
+  private boolean sealNext(Shard shard, String projectId, String artifactId) throws Exception {
+    List<ChainArchive.Segment> segments = archive.segments(shard.jdbc(), projectId, artifactId);
+    ChainArchive.Segment last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+    long from = (last == null) ? 0 : last.lastIndex() + 1;
+    String prev = (last == null) ? null : last.lastEventHash();
+
+    Long head = ChainVerificationService.headIndex(shard.jdbc(), projectId, artifactId);
+    if (head == null || head <= from) return false;
+
+    // Contiguous cold run [from, until) that stops before the head
+    List<Long> cold = shard.jdbc().queryForList("""
+        SELECT chain_index FROM evidence_events
+        WHERE project_id=? AND artifact_id=? AND chain_index >= ? AND chain_index < ?
+          AND inserted_at < now() - make_interval(days => ?)
+        ORDER BY chain_index ASC
+        LIMIT ?
+        """,
+        Long.class, projectId, artifactId, from, head, afterDays, segmentRows
+    );
+    long until = from;
+    for (Long idx : cold) {
+      if (idx != until) break;
+      until++;
+    }
+    if (until - from < minSegmentRows) return false;
+
+    List<ChainVerificationService.Row> rows =
+        ChainVerificationService.loadPage(shard.jdbc(), projectId, artifactId, from, until, segmentRows);
+    if (rows.size() != until - from) return false;
+
+    // Only verified history is sealed: a broken prefix stays hot so it can still be repaired
+    for (ChainVerificationService.Row r : rows) {
+      String expectedPrev = (r.chainIndex() == 0) ? null : prev;
+      if (!Objects.equals(expectedPrev, r.prevHash())
+          || !Objects.equals(ChainVerificationService.computeEventHash(expectedPrev, r), r.eventHash())) {
+        log.warn("not sealing project={} artifact={}: chain does not verify at index {}",
+            projectId, artifactId, r.chainIndex());
+        return false;
+      }
+      prev = r.eventHash();
+    }
+
+    ChainArchive.Segment segment = archive.write(projectId, artifactId, rows);
+
+    Boolean sealed = shard.tx().execute(status -> {
+      shard.jdbc().update("SELECT pg_advisory_xact_lock(hashtext(?))", projectId + "|" + artifactId);
+
+      int deleted = shard.jdbc().update("""
+          DELETE FROM evidence_events
+          WHERE project_id=? AND artifact_id=? AND chain_index >= ? AND chain_index <= ?
+          """,
+          projectId, artifactId, segment.firstIndex(), segment.lastIndex()
+      );
+      String boundary = shard.jdbc().query(
+          "SELECT prev_hash FROM evidence_events WHERE project_id=? AND artifact_id=? AND chain_index=?",
+          ps -> { ps.setString(1, projectId); ps.setString(2, artifactId); ps.setLong(3, segment.lastIndex() + 1); },
+          rs -> rs.next() ? rs.getString(1) : null
+      );
+      // Rows changed since they were read (e.g. a repair ran): leave them hot
+      if (deleted != segment.eventCount() || !segment.lastEventHash().equals(boundary)) {
+        status.setRollbackOnly();
+        return false;
+      }
+
+      shard.jdbc().update("""
+          INSERT INTO chain_segments
+            (project_id, artifact_id, first_index, last_index, first_prev_hash, last_event_hash,
+             event_count, blob_key, content_sha256, byte_size)
+          VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+          """,
+          projectId, artifactId, segment.firstIndex(), segment.lastIndex(),
+          segment.firstPrevHash(), segment.lastEventHash(),
+          segment.eventCount(), segment.blobKey(), segment.contentSha256(), segment.byteSize()
+      );
+      return true;
+    });
+
+    if (Boolean.TRUE.equals(sealed)) {
+      log.info("sealed project={} artifact={} indexes={}..{} bytes={}",
+          projectId, artifactId, segment.firstIndex(), segment.lastIndex(), segment.byteSize());
+    }
+    return Boolean.TRUE.equals(sealed);
+  }
+}
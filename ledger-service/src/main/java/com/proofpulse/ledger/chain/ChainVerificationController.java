@@ -1,33 +1,193 @@
 package com.proofpulse.ledger.chain;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.proofpulse.ledger.shard.ShardRouter;
+import com.proofpulse.ledger.storage.PayloadOffloader;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/chains")
 public class ChainVerificationController {
 
   private final ChainVerificationService verifier;
+  private final VerifyJobService jobs;
+  private final ChainScrubber scrubber;
+  private final ShardRouter shards;
+  private final PayloadOffloader payloads;
 
-  public ChainVerificationController(ChainVerificationService verifier) {
+  public ChainVerificationController(
+      ChainVerificationService verifier,
+      VerifyJobService jobs,
+      ChainScrubber scrubber,
+      ShardRouter shards,
+      PayloadOffloader payloads
+  ) {
     this.verifier = verifier;
+    this.jobs = jobs;
+    this.scrubber = scrubber;
+    this.shards = shards;
+    this.payloads = payloads;
   }
 
   @GetMapping("/verify")
   public ResponseEntity<Map<String, Object>> verify(
       @RequestParam String projectId,
-      @RequestParam String artifactId
+      @RequestParam String artifactId,
+      @RequestParam(required = false) Long minHeadIndex
+  ) {
+    return ResponseEntity.ok(verifier.verify(projectId, artifactId, minHeadIndex));
+  }
+
+  /**
+   * Chain head without a scan. ETag is the head hash, so pollers sending
+   * If-None-Match get 304 until the next append.
+   */
+  @GetMapping("/head")
+  public ResponseEntity<?> head(
+      @RequestParam String projectId,
+      @RequestParam String artifactId,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+  ) {
+    Map<String, Object> head = verifier.head(projectId, artifactId);
+    if (head == null) return ResponseEntity.status(404).body(Map.of("error", "Chain not found"));
+
+    String etag = "\"" + head.get("headHash") + "\"";
+    if (matches(ifNoneMatch, etag)) {
+      return ResponseEntity.status(304).eTag(etag).cacheControl(CacheControl.noCache()).build();
+    }
+    return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(head);
+  }
+
+  private static boolean matches(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null) return false;
+    for (String candidate : ifNoneMatch.split(",")) {
+      String c = candidate.trim();
+      if (c.startsWith("W/")) c = c.substring(2);
+      if (c.equals("*") || c.equals(etag)) return true;
+    }
+    return false;
+  }
+
+  /** Event export in pages; JSON, CBOR or Smile per Accept. */
+  @GetMapping("/events")
+  public ResponseEntity<?> exportEvents(
+      @RequestParam String projectId,
+      @RequestParam String artifactId,
+      @RequestParam(defaultValue = "0") long fromIndex,
+      @RequestParam(defaultValue = "1000") int limit
+  ) {
+    try {
+      return ResponseEntity.ok(verifier.exportEvents(projectId, artifactId, fromIndex, Math.max(1, Math.min(limit, 10_000))));
+    } catch (Exception ex) {
+      return ResponseEntity.status(500).body(Map.of(
+          "error", "Event export failed",
+          "message", String.valueOf(ex.getMessage())
+      ));
+    }
+  }
+
+  /** Full payload of one event; offloaded payloads are fetched from the blob store and checked against their hash. */
+  @SuppressWarnings("unchecked")
+  @GetMapping("/events/payload")
+  public ResponseEntity<?> eventPayload(
+      @RequestParam String projectId,
+      @RequestParam String artifactId,
+      @RequestParam long chainIndex
   ) {
-    return ResponseEntity.ok(verifier.verify(projectId, artifactId));
+    try {
+      List<Map<String, Object>> events =
+          (List<Map<String, Object>>) verifier.exportEvents(projectId, artifactId, chainIndex, 1).get("events");
+      if (events.isEmpty() || ((Number) events.get(0).get("chainIndex")).longValue() != chainIndex) {
+        return ResponseEntity.status(404).body(Map.of("error", "Event not found"));
+      }
+      return ResponseEntity.ok(payloads.resolve((JsonNode) events.get(0).get("payload")));
+    } catch (Exception ex) {
+      return ResponseEntity.status(500).body(Map.of(
+          "error", "Payload fetch failed",
+          "message", String.valueOf(ex.getMessage())
+      ));
+    }
+  }
+
+  @GetMapping("/read-routing")
+  public Map<String, Long> readRouting() {
+    return shards.readRoutingStats();
+  }
+
+  @GetMapping("/verify-project")
+  public ResponseEntity<?> verifyProject(@RequestParam String projectId) {
+    try {
+      return ResponseEntity.ok(verifier.verifyProject(projectId));
+    } catch (Exception ex) {
+      return ResponseEntity.status(500).body(Map.of(
+          "error", "Project verification failed",
+          "message", String.valueOf(ex.getMessage())
+      ));
+    }
   }
 
   @PostMapping("/repair")
   public ResponseEntity<Map<String, Object>> repair(
+      @RequestParam String projectId,
+      @RequestParam String artifactId,
+      @RequestParam(defaultValue = "false") boolean dryRun
+  ) {
+    return ResponseEntity.ok(verifier.repair(projectId, artifactId, dryRun));
+  }
+
+  @GetMapping("/repair-status")
+  public ResponseEntity<?> repairStatus(@RequestParam String projectId, @RequestParam String artifactId) {
+    Map<String, Object> progress = verifier.repairStatus(projectId, artifactId);
+    if (progress == null) return ResponseEntity.status(404).body(Map.of("error", "No repair running for chain"));
+    return ResponseEntity.ok(progress);
+  }
+
+  @PostMapping("/verify-jobs")
+  public ResponseEntity<Map<String, Object>> submitVerifyJob(
+      @RequestParam String projectId,
+      @RequestParam String artifactId
+  ) {
+    UUID jobId = jobs.submit(projectId, artifactId);
+    if (jobId == null) {
+      return ResponseEntity.status(503)
+          .header("Retry-After", "30")
+          .body(Map.of("error", "Verification queue is full"));
+    }
+    return ResponseEntity.accepted().body(Map.of(
+        "jobId", jobId.toString(),
+        "status", "QUEUED",
+        "statusEndpoint", "/chains/verify-jobs/" + jobId
+    ));
+  }
+
+  @GetMapping("/verify-jobs/{jobId}")
+  public ResponseEntity<?> verifyJob(@PathVariable UUID jobId) {
+    try {
+      Map<String, Object> status = jobs.status(jobId);
+      if (status == null) return ResponseEntity.status(404).body(Map.of("error", "Job not found"));
+      return ResponseEntity.ok(status);
+    } catch (Exception ex) {
+      return ResponseEntity.status(500).body(Map.of(
+          "error", "Job status failed",
+          "message", String.valueOf(ex.getMessage())
+      ));
+    }
+  }
+
+  @GetMapping("/scrub-status")
+  public ResponseEntity<?> scrubStatus(
       @RequestParam String projectId,
       @RequestParam String artifactId
   ) {
-    return ResponseEntity.ok(verifier.repair(projectId, artifactId));
+    Map<String, Object> status = scrubber.status(projectId, artifactId);
+    if (status == null) return ResponseEntity.status(404).body(Map.of("error", "Chain not scrubbed yet"));
+    return ResponseEntity.ok(status);
   }
 }
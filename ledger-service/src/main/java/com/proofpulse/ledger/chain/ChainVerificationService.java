@@ -1,163 +1,618 @@
 package com.proofpulse.ledger.chain;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.proofpulse.ledger.config.ThreadMode;
 import com.proofpulse.ledger.crypto.EventCanonical;
+import com.proofpulse.ledger.crypto.HashSuite;
+import com.proofpulse.ledger.shard.Shard;
+import com.proofpulse.ledger.shard.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 @Service
 public class ChainVerificationService {
 
-  private final JdbcTemplate jdbc;
+  /** Rows fetched per round trip when streaming a chain. */
+  private static final int PAGE_SIZE =
+      Integer.parseInt(System.getenv().getOrDefault("PP_VERIFY_PAGE_SIZE", "1000"));
 
-  public ChainVerificationService(JdbcTemplate jdbc) {
-    this.jdbc = jdbc;
+  /** Rows per JDBC batch when repair rewrites a suffix. */
+  private static final int REPAIR_BATCH_SIZE =
+      Integer.parseInt(System.getenv().getOrDefault("PP_REPAIR_BATCH_SIZE", "500"));
+
+  private static final Logger log = LoggerFactory.getLogger(ChainVerificationService.class);
+
+  private final ShardRouter shards;
+  private final ChainArchive archive;
+  private final ApplicationEventPublisher events;
+  private final ExecutorService fanout;
+  private final Map<String, Map<String, Object>> repairsInFlight = new ConcurrentHashMap<>();
+
+  public ChainVerificationService(ShardRouter shards, ChainArchive archive, ApplicationEventPublisher events) {
+    this.shards = shards;
+    this.archive = archive;
+    this.events = events;
+    this.fanout = Executors.newFixedThreadPool(Math.min(8, shards.all().size()), ThreadMode.factory("verify-fanout"));
+  }
+
+  /**
+   * Receives a checkpoint after every verified page.
+   * nextIndex/prevHash are enough to resume with {@link #verifyFrom}.
+   */
+  @FunctionalInterface
+  public interface Progress {
+    Progress NONE = (nextIndex, prevHash, totalEvents) -> true;
+
+    /** Return false to stop verifying (verifyFrom then returns null). */
+    boolean checkpoint(long nextIndex, String prevHash, long totalEvents);
+
+    /**
+     * Like checkpoint, after a sealed segment was linked by its manifest
+     * boundary hashes without reading its rows ({@link #verifyIncremental}).
+     */
+    default boolean linked(long nextIndex, String prevHash, long totalEvents) {
+      return checkpoint(nextIndex, prevHash, totalEvents);
+    }
   }
 
   public Map<String, Object> verify(String projectId, String artifactId) {
-    List<Row> rows = loadRows(projectId, artifactId);
-    if (rows.isEmpty()) {
+    return verify(projectId, artifactId, null);
+  }
+
+  /**
+   * Read-only verify, served by the shard's replica when it has caught up to
+   * minHeadIndex (default: the primary's current head), otherwise by the primary.
+   */
+  public Map<String, Object> verify(String projectId, String artifactId, Long minHeadIndex) {
+    JdbcTemplate reader = shards.readerFor(projectId, artifactId, minHeadIndex);
+    return verifyFrom(reader, projectId, artifactId, 0L, null, Progress.NONE, true);
+  }
+
+  /**
+   * Streams the chain in pages starting at fromIndex, where prevHash is the
+   * stored event_hash of fromIndex - 1 (null when starting from genesis).
+   * Sealed segments on the way are downloaded and re-hashed like hot rows.
+   */
+  public Map<String, Object> verifyFrom(
+      String projectId,
+      String artifactId,
+      long fromIndex,
+      String prevHash,
+      Progress progress
+  ) {
+    JdbcTemplate reader = shards.readerFor(projectId, artifactId, null);
+    return verifyFrom(reader, projectId, artifactId, fromIndex, prevHash, progress, true);
+  }
+
+  /**
+   * Like {@link #verifyFrom} but does not download sealed segments: they were
+   * verified when sealed, so only their manifest boundary hashes are linked
+   * into the chain. A fromIndex inside a segment (the range was sealed after
+   * that checkpoint) reads that one segment from fromIndex instead. Used by
+   * the background scrubber.
+   */
+  public Map<String, Object> verifyIncremental(
+      String projectId,
+      String artifactId,
+      long fromIndex,
+      String prevHash,
+      Progress progress
+  ) {
+    JdbcTemplate reader = shards.readerFor(projectId, artifactId, null);
+    return verifyFrom(reader, projectId, artifactId, fromIndex, prevHash, progress, false);
+  }
+
+  private Map<String, Object> verifyFrom(
+      JdbcTemplate jdbc,
+      String projectId,
+      String artifactId,
+      long fromIndex,
+      String prevHash,
+      Progress progress,
+      boolean readArchived
+  ) {
+    Long head = headIndex(jdbc, projectId, artifactId);
+    if (head == null) {
       return result(projectId, artifactId, false, 0, null,
           "no_chain", null, null, null, null);
     }
+    long total = head + 1;
 
-    String prev = null;
+    List<ChainArchive.Segment> segments = archive.segments(jdbc, projectId, artifactId);
 
-    for (int i = 0; i < rows.size(); i++) {
-      Row r = rows.get(i);
+    long next = fromIndex;
+    String prev = prevHash;
 
-      String expectedPrev = (i == 0) ? null : prev;
+    while (true) {
+      ChainArchive.Segment sealed = ChainArchive.covering(segments, next);
+      List<Row> rows;
+      boolean more;
+
+      if (sealed != null && !readArchived && next == sealed.firstIndex()) {
+        String expectedPrev = (sealed.firstIndex() == 0) ? null : prev;
+        if (!Objects.equals(expectedPrev, sealed.firstPrevHash())) {
+          return result(projectId, artifactId, false, total, sealed.firstIndex(),
+              "segment boundary mismatch",
+              sealed.firstPrevHash(), expectedPrev,
+              null, null);
+        }
+        prev = sealed.lastEventHash();
+        next = sealed.lastIndex() + 1;
+        if (!progress.linked(next, prev, total)) return null;
+        continue;
+      }
 
-      if (!Objects.equals(expectedPrev, r.prevHash)) {
-        return result(projectId, artifactId, false, rows.size(), (long) i,
-            "prev_hash mismatch",
-            r.prevHash, expectedPrev,
-            r.eventHash, null);
+      if (sealed != null) {
+        try {
+          rows = archive.read(sealed, next, Integer.MAX_VALUE);
+        } catch (Exception ex) {
+          return result(projectId, artifactId, false, total, sealed.firstIndex(),
+              "archive_error: " + ex.getMessage(),
+              null, null, null, null);
+        }
+        more = true;
+      } else {
+        // Hot rows up to the next sealed segment (if any)
+        ChainArchive.Segment after = ChainArchive.nextAfter(segments, next);
+        long until = (after == null) ? Long.MAX_VALUE : after.firstIndex();
+        rows = loadPage(jdbc, projectId, artifactId, next, until, PAGE_SIZE);
+        more = rows.size() == PAGE_SIZE || after != null;
+        if (rows.size() < PAGE_SIZE && after != null) {
+          // Any gap before the segment shows up as a prev_hash mismatch on its first row
+          next = after.firstIndex();
+        }
       }
 
-      try {
-        JsonNode payloadNode = EventCanonical.mapper().readTree(r.payloadJsonCanonical);
-
-        String canonicalEvent = EventCanonical.canonicalEventJson(
-            r.schemaVersion,
-            r.eventId,
-            r.projectId,
-            r.artifactId,
-            r.source,
-            r.ts,
-            r.type,
-            payloadNode
-        );
-
-        String expectedEventHash = sha256Hex((expectedPrev == null ? "" : expectedPrev) + "|" + canonicalEvent);
-
-        if (!Objects.equals(expectedEventHash, r.eventHash)) {
-          return result(projectId, artifactId, false, rows.size(), (long) i,
-              "event_hash mismatch",
+      for (Row r : rows) {
+        String expectedPrev = (r.chainIndex == 0) ? null : prev;
+
+        if (!Objects.equals(expectedPrev, r.prevHash)) {
+          return result(projectId, artifactId, false, total, r.chainIndex,
+              "prev_hash mismatch",
               r.prevHash, expectedPrev,
-              r.eventHash, expectedEventHash);
+              r.eventHash, null);
         }
 
-        prev = expectedEventHash;
-      } catch (Exception ex) {
-        return result(projectId, artifactId, false, rows.size(), (long) i,
-            "verification_error: " + ex.getMessage(),
-            null, null, null, null);
+        try {
+          String expectedEventHash = computeEventHash(expectedPrev, r);
+
+          if (!Objects.equals(expectedEventHash, r.eventHash)) {
+            return result(projectId, artifactId, false, total, r.chainIndex,
+                "event_hash mismatch",
+                r.prevHash, expectedPrev,
+                r.eventHash, expectedEventHash);
+          }
+
+          prev = expectedEventHash;
+          next = Math.max(next, r.chainIndex + 1);
+        } catch (Exception ex) {
+          return result(projectId, artifactId, false, total, r.chainIndex,
+              "verification_error: " + ex.getMessage(),
+              null, null, null, null);
+        }
       }
+
+      total = Math.max(total, next);
+      if (!more) break;
+      if (!progress.checkpoint(next, prev, total)) return null;
     }
 
-    return result(projectId, artifactId, true, rows.size(), null,
+    progress.checkpoint(next, prev, total);
+    Map<String, Object> valid = result(projectId, artifactId, true, total, null,
         null, null, null, null, null);
+    // Head as verified here (appends after the scan started are not covered)
+    valid.put("headChainIndex", next - 1);
+    valid.put("headHash", prev);
+    return valid;
   }
 
   /**
-   * Repairs prev_hash + event_hash for all events using the canonical hashing logic.
-   * This is the permanent fix once hashing logic changed mid-project.
+   * Current head of a chain from one backward probe of the chain-position
+   * primary key on the chain's primary, without verifying anything. Null when
+   * the chain does not exist.
    */
-  @Transactional
-  public Map<String, Object> repair(String projectId, String artifactId) {
-    List<Row> rows = loadRows(projectId, artifactId);
-    if (rows.isEmpty()) {
-      return result(projectId, artifactId, false, 0, null,
-          "no_chain", null, null, null, null);
+  public Map<String, Object> head(String projectId, String artifactId) {
+    return shards.forChain(projectId, artifactId).jdbc().query("""
+        SELECT chain_index, event_hash
+        FROM evidence_events
+        WHERE project_id=? AND artifact_id=?
+        ORDER BY chain_index DESC
+        LIMIT 1
+        """,
+        ps -> { ps.setString(1, projectId); ps.setString(2, artifactId); },
+        rs -> {
+          if (!rs.next()) return null;
+          Map<String, Object> m = new LinkedHashMap<>();
+          m.put("projectId", projectId);
+          m.put("artifactId", artifactId);
+          m.put("headChainIndex", rs.getLong("chain_index"));
+          m.put("headHash", rs.getString("event_hash"));
+          return m;
+        }
+    );
+  }
+
+  /**
+   * One page of stored events from fromIndex, hot or sealed. nextIndex is null
+   * once the head has been returned and always moves forward otherwise, past
+   * any gap before the next sealed segment, even when the page is empty. Payloads are returned as trees so binary
+   * wire formats encode them natively; eventHash still covers the canonical JSON.
+   */
+  public Map<String, Object> exportEvents(String projectId, String artifactId, long fromIndex, int limit) throws Exception {
+    JdbcTemplate jdbc = shards.readerFor(projectId, artifactId, null);
+    List<ChainArchive.Segment> segments = archive.segments(jdbc, projectId, artifactId);
+
+    List<Row> rows;
+    // Where the next page starts when this one ends short of a sealed segment (skips any gap)
+    Long resumeAt = null;
+    ChainArchive.Segment sealed = ChainArchive.covering(segments, fromIndex);
+    if (sealed != null) {
+      rows = archive.read(sealed, fromIndex, limit);
+    } else {
+      ChainArchive.Segment after = ChainArchive.nextAfter(segments, fromIndex);
+      long until = (after == null) ? Long.MAX_VALUE : after.firstIndex();
+      rows = loadPage(jdbc, projectId, artifactId, fromIndex, until, limit);
+      if (after != null && rows.size() < limit) resumeAt = after.firstIndex();
+    }
+
+    List<Map<String, Object>> events = new ArrayList<>();
+    for (Row r : rows) {
+      Map<String, Object> e = new LinkedHashMap<>();
+      e.put("schemaVersion", r.schemaVersion);
+      e.put("eventId", r.eventId.toString());
+      e.put("projectId", r.projectId);
+      e.put("artifactId", r.artifactId);
+      e.put("source", r.source);
+      e.put("timestamp", r.ts.toString());
+      e.put("type", r.type);
+      e.put("payload", EventCanonical.mapper().readTree(r.payloadJsonCanonical));
+      e.put("chainIndex", r.chainIndex);
+      e.put("prevHash", r.prevHash);
+      e.put("eventHash", r.eventHash);
+      e.put("hashSuite", HashSuite.byId(r.hashAlg).label());
+      events.add(e);
+    }
+
+    Long head = headIndex(jdbc, projectId, artifactId);
+    long next;
+    if (resumeAt != null) {
+      next = resumeAt;
+    } else if (rows.isEmpty()) {
+      // Nothing stored at or after fromIndex: the chain is done, don't hand back the same index
+      next = Long.MAX_VALUE;
+    } else {
+      next = rows.get(rows.size() - 1).chainIndex + 1;
+    }
+
+    Map<String, Object> m = new LinkedHashMap<>();
+    m.put("projectId", projectId);
+    m.put("artifactId", artifactId);
+    m.put("fromIndex", fromIndex);
+    m.put("events", events);
+    m.put("nextIndex", (head == null || next > head) ? null : next);
+    return m;
+  }
+
+  /**
+   * Verifies every chain of a project. Shards that may hold the project are
+   * scanned in parallel; chains within a shard are verified one after another.
+   */
+  public Map<String, Object> verifyProject(String projectId) throws Exception {
+    List<Future<List<Map<String, Object>>>> perShard = new ArrayList<>();
+    for (Shard shard : shards.forProject(projectId)) {
+      perShard.add(fanout.submit(() -> {
+        List<Map<String, Object>> reports = new ArrayList<>();
+        for (String artifactId : artifactsOf(shard, projectId)) {
+          // Routing by chain: artifacts listed here may only live on this shard
+          if (shards.forChain(projectId, artifactId).id() != shard.id()) continue;
+          reports.add(verify(projectId, artifactId));
+        }
+        return reports;
+      }));
+    }
+
+    long chains = 0;
+    long totalEvents = 0;
+    List<Map<String, Object>> invalid = new ArrayList<>();
+    for (Future<List<Map<String, Object>>> f : perShard) {
+      for (Map<String, Object> report : f.get()) {
+        chains++;
+        totalEvents += ((Number) report.get("totalEvents")).longValue();
+        if (!Boolean.TRUE.equals(report.get("valid"))) invalid.add(report);
+      }
+    }
+
+    Map<String, Object> m = new LinkedHashMap<>();
+    m.put("projectId", projectId);
+    m.put("computedAt", Instant.now().toString());
+    m.put("valid", chains > 0 && invalid.isEmpty());
+    m.put("chains", chains);
+    m.put("totalEvents", totalEvents);
+    m.put("shardsScanned", perShard.size());
+    m.put("invalidChains", invalid);
+    return m;
+  }
+
+  /** Distinct artifacts of a project via a skip scan over the chain-position primary key. */
+  public static List<String> artifactsOf(Shard shard, String projectId) {
+    return shard.jdbc().queryForList("""
+        WITH RECURSIVE a AS (
+          (SELECT artifact_id FROM evidence_events WHERE project_id=? ORDER BY artifact_id LIMIT 1)
+          UNION ALL
+          SELECT (SELECT e.artifact_id FROM evidence_events e
+                  WHERE e.project_id=? AND e.artifact_id > a.artifact_id
+                  ORDER BY e.artifact_id LIMIT 1)
+          FROM a
+          WHERE a.artifact_id IS NOT NULL
+        )
+        SELECT artifact_id FROM a WHERE artifact_id IS NOT NULL
+        """,
+        String.class, projectId, projectId
+    );
+  }
+
+  /**
+   * Repairs prev_hash + event_hash using the canonical hashing logic.
+   * The verified prefix is left alone: only the suffix from the first mismatch
+   * is rewritten, with updates sent as JDBC batches. dryRun only counts the
+   * rows that would change and takes no lock. Once rewritten hashes commit,
+   * {@link ChainRepaired} is published so state derived from the old hashes
+   * (cached positions, scrub checkpoints, attestations) can be dropped.
+   */
+  public Map<String, Object> repair(String projectId, String artifactId, boolean dryRun) {
+    Map<String, Object> progress = new ConcurrentHashMap<>();
+    progress.put("projectId", projectId);
+    progress.put("artifactId", artifactId);
+    progress.put("dryRun", dryRun);
+    progress.put("startedAt", Instant.now().toString());
+    String key = projectId + "|" + artifactId;
+    repairsInFlight.put(key, progress);
+    try {
+      // One transaction on the chain's shard: the advisory lock is held until commit
+      return shards.forChain(projectId, artifactId).tx()
+          .execute(status -> repairInTx(projectId, artifactId, dryRun, status, progress));
+    } finally {
+      repairsInFlight.remove(key, progress);
+    }
+  }
+
+  /** Progress of a repair running on this instance, or null when none is. */
+  public Map<String, Object> repairStatus(String projectId, String artifactId) {
+    Map<String, Object> progress = repairsInFlight.get(projectId + "|" + artifactId);
+    return progress == null ? null : new LinkedHashMap<>(progress);
+  }
+
+  private Map<String, Object> repairInTx(
+      String projectId,
+      String artifactId,
+      boolean dryRun,
+      TransactionStatus status,
+      Map<String, Object> progress
+  ) {
+    JdbcTemplate jdbc = shards.forChain(projectId, artifactId).jdbc();
+
+    // Find the first mismatch without holding the chain lock (on the primary: replicas may lag)
+    Map<String, Object> before = verifyFrom(jdbc, projectId, artifactId, 0L, null, Progress.NONE, true);
+    if ("no_chain".equals(before.get("reason"))) return before;
+    if (Boolean.TRUE.equals(before.get("valid"))) {
+      return withRepairStats(before, dryRun, null, 0, 0, 0);
+    }
+
+    long from = ((Number) before.get("firstMismatchIndex")).longValue();
+    long total = ((Number) before.get("totalEvents")).longValue();
+
+    // Sealed segments are immutable blobs; rewriting hashes behind them would break their manifests
+    List<ChainArchive.Segment> segments = archive.segments(jdbc, projectId, artifactId);
+    long sealedEnd = segments.isEmpty() ? -1 : segments.get(segments.size() - 1).lastIndex();
+    if (from <= sealedEnd) {
+      Map<String, Object> refused = new LinkedHashMap<>(before);
+      refused.put("reason", "mismatch in sealed segment (last sealed index " + sealedEnd + "), not repairable");
+      return withRepairStats(refused, dryRun, from, 0, 0, 0);
     }
 
     // Prevent concurrent inserts while repairing
-    jdbc.update("SELECT pg_advisory_xact_lock(hashtext(?))", projectId + "|" + artifactId);
+    if (!dryRun) {
+      jdbc.update("SELECT pg_advisory_xact_lock(hashtext(?))", projectId + "|" + artifactId);
+    }
 
-    String prev = null;
+    String prefixHash;
+    if (from == 0) {
+      prefixHash = null;
+    } else if (from - 1 == sealedEnd) {
+      prefixHash = segments.get(segments.size() - 1).lastEventHash();
+    } else {
+      prefixHash = storedEventHash(jdbc, projectId, artifactId, from - 1);
+    }
+    String prev = prefixHash;
+    long next = from;
+    long scanned = 0;
+    long changed = 0;
+    long started = System.nanoTime();
+    long lastLog = started;
+    List<Object[]> batch = new ArrayList<>();
+    progress.put("fromIndex", from);
+    progress.put("totalEvents", total);
 
-    for (Row r : rows) {
-      try {
-        JsonNode payloadNode = EventCanonical.mapper().readTree(r.payloadJsonCanonical);
-
-        String canonicalEvent = EventCanonical.canonicalEventJson(
-            r.schemaVersion,
-            r.eventId,
-            r.projectId,
-            r.artifactId,
-            r.source,
-            r.ts,
-            r.type,
-            payloadNode
-        );
-
-        String newEventHash = sha256Hex((prev == null ? "" : prev) + "|" + canonicalEvent);
-        String newPrevHash = prev;
-
-        jdbc.update("""
-            UPDATE evidence_events
-            SET prev_hash = ?, event_hash = ?
-            WHERE project_id = ? AND artifact_id = ? AND chain_index = ?
-            """,
-            newPrevHash,
-            newEventHash,
-            projectId,
-            artifactId,
-            r.chainIndex
-        );
+    while (true) {
+      List<Row> rows = loadPage(jdbc, projectId, artifactId, next, Long.MAX_VALUE, PAGE_SIZE);
+
+      for (Row r : rows) {
+        String newEventHash;
+        try {
+          newEventHash = computeEventHash(prev, r);
+        } catch (Exception ex) {
+          if (!dryRun) status.setRollbackOnly();
+          return result(projectId, artifactId, false, total, r.chainIndex,
+              "repair_error: " + ex.getMessage(),
+              null, null, null, null);
+        }
+
+        if (!Objects.equals(prev, r.prevHash) || !Objects.equals(newEventHash, r.eventHash)) {
+          changed++;
+          if (!dryRun) batch.add(new Object[]{prev, newEventHash, projectId, artifactId, r.chainIndex});
+        }
 
         prev = newEventHash;
-      } catch (Exception ex) {
-        return result(projectId, artifactId, false, rows.size(), null,
-            "repair_error: " + ex.getMessage(),
-            null, null, null, null);
+        next = r.chainIndex + 1;
+        scanned++;
+
+        if (batch.size() >= REPAIR_BATCH_SIZE) flushRepairBatch(jdbc, batch);
       }
+
+      progress.put("nextIndex", next);
+      progress.put("rowsScanned", scanned);
+      progress.put(dryRun ? "rowsWouldChange" : "rowsChanged", changed);
+      if (rows.size() < PAGE_SIZE) break;
+
+      long now = System.nanoTime();
+      if (now - lastLog > 5_000_000_000L) {
+        log.info("repair progress project={} artifact={} index={} scanned={} changed={}",
+            projectId, artifactId, next, scanned, changed);
+        lastLog = now;
+      }
+    }
+    flushRepairBatch(jdbc, batch);
+
+    if (!dryRun && changed > 0) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          events.publishEvent(new ChainRepaired(projectId, artifactId, from, prefixHash));
+        }
+      });
+    }
+
+    long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+    if (dryRun) {
+      return withRepairStats(before, true, from, scanned, changed, elapsedMs);
     }
 
-    return verify(projectId, artifactId);
+    // Prefix was already verified above; re-check only the rewritten suffix
+    Map<String, Object> after = verifyFrom(jdbc, projectId, artifactId, from, prefixHash, Progress.NONE, true);
+    return withRepairStats(after, false, from, scanned, changed, elapsedMs);
+  }
+
+  private static void flushRepairBatch(JdbcTemplate jdbc, List<Object[]> batch) {
+    if (batch.isEmpty()) return;
+    jdbc.batchUpdate("""
+        UPDATE evidence_events
+        SET prev_hash = ?, event_hash = ?
+        WHERE project_id = ? AND artifact_id = ? AND chain_index = ?
+        """,
+        batch
+    );
+    batch.clear();
+  }
+
+  private static String storedEventHash(JdbcTemplate jdbc, String projectId, String artifactId, long chainIndex) {
+    return jdbc.query(
+        "SELECT event_hash FROM evidence_events WHERE project_id=? AND artifact_id=? AND chain_index=?",
+        ps -> { ps.setString(1, projectId); ps.setString(2, artifactId); ps.setLong(3, chainIndex); },
+        rs -> rs.next() ? rs.getString(1) : null
+    );
+  }
+
+  private static Map<String, Object> withRepairStats(
+      Map<String, Object> report,
+      boolean dryRun,
+      Long fromIndex,
+      long scanned,
+      long changed,
+      long elapsedMs
+  ) {
+    Map<String, Object> repair = new LinkedHashMap<>();
+    repair.put("dryRun", dryRun);
+    repair.put("fromIndex", fromIndex);
+    repair.put("rowsScanned", scanned);
+    repair.put(dryRun ? "rowsWouldChange" : "rowsChanged", changed);
+    repair.put("elapsedMs", elapsedMs);
+
+    Map<String, Object> m = new LinkedHashMap<>(report);
+    m.put("repair", repair);
+    return m;
+  }
+
+  static Long headIndex(JdbcTemplate jdbc, String projectId, String artifactId) {
+    return jdbc.query(
+        "SELECT MAX(chain_index) FROM evidence_events WHERE project_id=? AND artifact_id=?",
+        ps -> { ps.setString(1, projectId); ps.setString(2, artifactId); },
+        rs -> { rs.next(); return (Long) rs.getObject(1); }
+    );
+  }
+
+  static String computeEventHash(String prevHash, Row r) throws Exception {
+    JsonNode payloadNode = EventCanonical.mapper().readTree(r.payloadJsonCanonical);
+
+    String canonicalEvent = EventCanonical.canonicalEventJson(
+        r.schemaVersion,
+        r.eventId,
+        r.projectId,
+        r.artifactId,
+        r.source,
+        r.ts,
+        r.type,
+        payloadNode
+    );
+
+    return HashSuite.byId(r.hashAlg).eventHash(prevHash, canonicalEvent);
   }
 
-  private List<Row> loadRows(String projectId, String artifactId) {
+  /** Hot rows with fromIndex <= chain_index < untilIndex. */
+  static List<Row> loadPage(
+      JdbcTemplate jdbc,
+      String projectId,
+      String artifactId,
+      long fromIndex,
+      long untilIndex,
+      int limit
+  ) {
     return jdbc.query("""
-        SELECT event_id, schema_version, project_id, artifact_id, source, ts, type, payload, chain_index, prev_hash, event_hash
+        SELECT event_id, schema_version, project_id, artifact_id, source, ts, type, payload, chain_index, prev_hash, event_hash, hash_alg
         FROM evidence_events
-        WHERE project_id=? AND artifact_id=?
+        WHERE project_id=? AND artifact_id=? AND chain_index >= ? AND chain_index < ?
         ORDER BY chain_index ASC
+        LIMIT ?
         """,
-        ps -> { ps.setString(1, projectId); ps.setString(2, artifactId); },
-        (rs, i) -> new Row(
-            UUID.fromString(rs.getString("event_id")),
-            rs.getInt("schema_version"),
-            rs.getString("project_id"),
-            rs.getString("artifact_id"),
-            rs.getString("source"),
-            rs.getTimestamp("ts").toInstant(),
-            rs.getString("type"),
-            rs.getString("payload"),
-            rs.getLong("chain_index"),
-            rs.getString("prev_hash"),
-            rs.getString("event_hash")
-        )
+        ps -> {
+          ps.setString(1, projectId);
+          ps.setString(2, artifactId);
+          ps.setLong(3, fromIndex);
+          ps.setLong(4, untilIndex);
+          ps.setInt(5, limit);
+        },
+        ROW_MAPPER
     );
   }
 
+  private static final RowMapper<Row> ROW_MAPPER = (rs, i) -> new Row(
+      UUID.fromString(rs.getString("event_id")),
+      rs.getInt("schema_version"),
+      rs.getString("project_id"),
+      rs.getString("artifact_id"),
+      rs.getString("source"),
+      rs.getTimestamp("ts").toInstant(),
+      rs.getString("type"),
+      rs.getString("payload"),
+      rs.getLong("chain_index"),
+      rs.getString("prev_hash"),
+      rs.getString("event_hash"),
+      rs.getInt("hash_alg")
+  );
+
   private static Map<String, Object> result(
       String projectId,
       String artifactId,
@@ -182,16 +637,12 @@ public class ChainVerificationService {
     m.put("expectedPrevHash", expectedPrevHash);
     m.put("storedEventHash", storedEventHash);
     m.put("expectedEventHash", expectedEventHash);
+    m.put("headChainIndex", null);
+    m.put("headHash", null);
     return m;
   }
 
-  private static String sha256Hex(String s) throws Exception {
-    MessageDigest md = MessageDigest.getInstance("SHA-256");
-    byte[] dig = md.digest(s.getBytes(StandardCharsets.UTF_8));
-    return HexFormat.of().formatHex(dig);
-  }
-
-  private record Row(
+  public record Row(
       UUID eventId,
       int schemaVersion,
       String projectId,
@@ -202,6 +653,7 @@ public class ChainVerificationService {
       String payloadJsonCanonical,
       long chainIndex,
       String prevHash,
-      String eventHash
+      String eventHash,
+      int hashAlg
   ) {}
 }
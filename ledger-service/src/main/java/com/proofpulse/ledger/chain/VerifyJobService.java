@@ -0,0 +1,223 @@
+package com.proofpulse.ledger.chain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proofpulse.ledger.config.ThreadMode;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Runs chain verification as background jobs on a bounded executor.
+ *
+ * Each job checkpoints (next_index, prev_hash) after every page, so a job that
+ * is interrupted (shutdown, crash, lost lease) resumes from where it stopped
+ * instead of rescanning the chain.
+ */
+@Service
+public class VerifyJobService {
+
+  /** A job whose lease is older than this is considered abandoned and is re-claimed. */
+  private static final long LEASE_SECONDS =
+      Long.parseLong(System.getenv().getOrDefault("PP_VERIFY_JOB_LEASE_SECONDS", "120"));
+
+  private final String owner = UUID.randomUUID().toString();
+  private final Set<UUID> local = ConcurrentHashMap.newKeySet();
+
+  private final JdbcTemplate jdbc;
+  private final ChainVerificationService verifier;
+  private final ObjectMapper om;
+  private final ThreadPoolExecutor executor;
+
+  public VerifyJobService(JdbcTemplate jdbc, ChainVerificationService verifier, ObjectMapper om) {
+    this.jdbc = jdbc;
+    this.verifier = verifier;
+    this.om = om;
+
+    int threads = Integer.parseInt(System.getenv().getOrDefault("PP_VERIFY_JOB_THREADS", "2"));
+    int queue = Integer.parseInt(System.getenv().getOrDefault("PP_VERIFY_JOB_QUEUE", "32"));
+    // Still `threads` workers in virtual mode: the pool bounds concurrent jobs, not just threads
+    this.executor = new ThreadPoolExecutor(
+        threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queue),
+        ThreadMode.factory("verify-job"),
+        new ThreadPoolExecutor.AbortPolicy()
+    );
+  }
+
+  /** Creates and enqueues a job. Returns null when the executor queue is full. */
+  public UUID submit(String projectId, String artifactId) {
+    UUID jobId = UUID.randomUUID();
+    jdbc.update("""
+        INSERT INTO chain_verify_jobs (job_id, project_id, artifact_id, status, owner)
+        VALUES (?, ?, ?, 'QUEUED', ?)
+        """,
+        jobId, projectId, artifactId, owner
+    );
+
+    if (!enqueue(jobId)) {
+      jdbc.update("DELETE FROM chain_verify_jobs WHERE job_id=?", jobId);
+      return null;
+    }
+    return jobId;
+  }
+
+  public Map<String, Object> status(UUID jobId) throws Exception {
+    List<Map<String, Object>> rows = jdbc.queryForList("""
+        SELECT job_id, project_id, artifact_id, status, next_index, total_events, run_start_index,
+               EXTRACT(EPOCH FROM (updated_at - run_started_at)) AS run_seconds,
+               report::text AS report, error, created_at, finished_at
+        FROM chain_verify_jobs
+        WHERE job_id=?
+        """,
+        jobId
+    );
+    if (rows.isEmpty()) return null;
+    Map<String, Object> r = rows.get(0);
+
+    long done = ((Number) r.get("next_index")).longValue();
+    Long total = r.get("total_events") == null ? null : ((Number) r.get("total_events")).longValue();
+    long runRows = done - ((Number) r.get("run_start_index")).longValue();
+    double runSeconds = r.get("run_seconds") == null ? 0 : ((Number) r.get("run_seconds")).doubleValue();
+
+    Double rate = (runSeconds > 0 && runRows > 0) ? runRows / runSeconds : null;
+    Long eta = null;
+    if ("DONE".equals(r.get("status"))) {
+      eta = 0L;
+    } else if (rate != null && total != null) {
+      eta = (long) Math.ceil(Math.max(0, total - done) / rate);
+    }
+
+    Map<String, Object> m = new LinkedHashMap<>();
+    m.put("jobId", jobId.toString());
+    m.put("projectId", r.get("project_id"));
+    m.put("artifactId", r.get("artifact_id"));
+    m.put("status", r.get("status"));
+    m.put("rowsDone", done);
+    m.put("totalEvents", total);
+    m.put("rowsPerSecond", rate == null ? null : Math.round(rate));
+    m.put("etaSeconds", eta);
+    m.put("createdAt", instant(r.get("created_at")));
+    m.put("finishedAt", instant(r.get("finished_at")));
+    m.put("error", r.get("error"));
+    m.put("report", r.get("report") == null ? null : om.readValue((String) r.get("report"), Map.class));
+    return m;
+  }
+
+  /**
+   * Keeps the lease on jobs held by this instance and re-claims jobs whose
+   * owner stopped heartbeating (e.g. the instance was restarted mid-scan).
+   */
+  @Scheduled(fixedDelay = 30_000)
+  public void sweep() {
+    for (UUID jobId : local) {
+      jdbc.update("UPDATE chain_verify_jobs SET updated_at=now() WHERE job_id=? AND owner=?", jobId, owner);
+    }
+
+    List<UUID> abandoned = jdbc.queryForList("""
+        UPDATE chain_verify_jobs
+        SET owner=?, status='QUEUED', updated_at=now()
+        WHERE status IN ('QUEUED', 'RUNNING')
+          AND updated_at < now() - make_interval(secs => ?)
+        RETURNING job_id
+        """,
+        UUID.class, owner, LEASE_SECONDS
+    );
+
+    for (UUID jobId : abandoned) {
+      // Queue full: leave it un-leased so this or another instance picks it up next sweep
+      if (!enqueue(jobId)) {
+        jdbc.update("UPDATE chain_verify_jobs SET owner=NULL WHERE job_id=? AND owner=?", jobId, owner);
+      }
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void resumeOnStartup() {
+    sweep();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    // Interrupted jobs stay RUNNING with their last checkpoint and are resumed by the next sweep
+    executor.shutdownNow();
+  }
+
+  private static String instant(Object ts) {
+    return ts == null ? null : ((Timestamp) ts).toInstant().toString();
+  }
+
+  private boolean enqueue(UUID jobId) {
+    try {
+      local.add(jobId);
+      executor.execute(() -> {
+        try {
+          run(jobId);
+        } finally {
+          local.remove(jobId);
+        }
+      });
+      return true;
+    } catch (RejectedExecutionException e) {
+      local.remove(jobId);
+      return false;
+    }
+  }
+
+  private void run(UUID jobId) {
+    List<Map<String, Object>> rows = jdbc.queryForList("""
+        UPDATE chain_verify_jobs
+        SET status='RUNNING', run_start_index=next_index, run_started_at=now(), updated_at=now()
+        WHERE job_id=? AND owner=? AND status IN ('QUEUED', 'RUNNING')
+        RETURNING project_id, artifact_id, next_index, prev_hash
+        """,
+        jobId, owner
+    );
+    if (rows.isEmpty()) return; // finished or taken over by another instance
+
+    Map<String, Object> job = rows.get(0);
+    String projectId = (String) job.get("project_id");
+    String artifactId = (String) job.get("artifact_id");
+    long fromIndex = ((Number) job.get("next_index")).longValue();
+    String prevHash = (String) job.get("prev_hash");
+
+    try {
+      Map<String, Object> report = verifier.verifyFrom(projectId, artifactId, fromIndex, prevHash,
+          (nextIndex, prev, totalEvents) -> {
+            if (Thread.currentThread().isInterrupted()) return false;
+            return jdbc.update("""
+                UPDATE chain_verify_jobs
+                SET next_index=?, prev_hash=?, total_events=?, updated_at=now()
+                WHERE job_id=? AND owner=?
+                """,
+                nextIndex, prev, totalEvents, jobId, owner
+            ) == 1;
+          });
+
+      // Stopped early: keep the checkpoint, the job resumes later
+      if (report == null) return;
+
+      jdbc.update("""
+          UPDATE chain_verify_jobs
+          SET status='DONE', report=(?::jsonb), updated_at=now(), finished_at=now()
+          WHERE job_id=? AND owner=?
+          """,
+          om.writeValueAsString(report), jobId, owner
+      );
+    } catch (Exception ex) {
+      jdbc.update("""
+          UPDATE chain_verify_jobs
+          SET status='FAILED', error=?, updated_at=now(), finished_at=now()
+          WHERE job_id=? AND owner=?
+          """,
+          String.valueOf(ex.getMessage()), jobId, owner
+      );
+    }
+  }
+}
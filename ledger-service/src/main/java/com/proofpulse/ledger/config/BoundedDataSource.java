@@ -0,0 +1,102 @@
+package com.proofpulse.ledger.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hands out at most `permits` connections at a time (the pool size), queueing
+ * callers FIFO on a fair semaphore. Used in virtual-thread mode: without it,
+ * every blocked request would be a cheap virtual thread waiting inside Hikari,
+ * and a burst turns into thousands of connection-timeout failures instead of
+ * an orderly queue.
+ */
+public class BoundedDataSource extends DelegatingDataSource implements AutoCloseable {
+
+  private static final long TIMEOUT_MS =
+      Long.parseLong(System.getenv().getOrDefault("PP_DB_PERMIT_TIMEOUT_MS", "30000"));
+
+  private final Semaphore permits;
+
+  public BoundedDataSource(DataSource target, int permits) {
+    super(target);
+    this.permits = new Semaphore(permits, true);
+  }
+
+  /** Callers currently waiting for a permit. */
+  public int waiting() {
+    return permits.getQueueLength();
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    acquire();
+    try {
+      return releasing(super.getConnection());
+    } catch (SQLException | RuntimeException ex) {
+      permits.release();
+      throw ex;
+    }
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    acquire();
+    try {
+      return releasing(super.getConnection(username, password));
+    } catch (SQLException | RuntimeException ex) {
+      permits.release();
+      throw ex;
+    }
+  }
+
+  /** Closes the wrapped pool (the container calls this in place of the pool's own close). */
+  @Override
+  public void close() throws Exception {
+    if (getTargetDataSource() instanceof AutoCloseable pool) pool.close();
+  }
+
+  private void acquire() throws SQLException {
+    try {
+      if (!permits.tryAcquire(TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+        throw new SQLTransientConnectionException("No database permit within " + TIMEOUT_MS + "ms");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLTransientConnectionException("Interrupted waiting for a database permit", e);
+    }
+  }
+
+  /** Returns the permit when the connection is closed (once, however often close is called). */
+  private Connection releasing(Connection target) {
+    AtomicBoolean released = new AtomicBoolean();
+    return (Connection) Proxy.newProxyInstance(
+        Connection.class.getClassLoader(),
+        new Class<?>[]{Connection.class},
+        (proxy, method, args) -> {
+          if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+            try {
+              return method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+              throw ex.getCause();
+            } finally {
+              permits.release();
+            }
+          }
+          try {
+            return method.invoke(target, args);
+          } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+          }
+        }
+    );
+  }
+}
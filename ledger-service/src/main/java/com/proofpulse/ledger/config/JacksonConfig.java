@@ -2,12 +2,22 @@ package com.proofpulse.ledger.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 
+/**
+ * JSON plus two binary wire formats: application/cbor and application/x-jackson-smile.
+ * Content negotiation picks the format per request (Content-Type / Accept); JSON stays
+ * the default. Hashing never sees the wire format: it canonicalizes the parsed tree
+ * through EventCanonical.
+ */
 @Configuration
 public class JacksonConfig {
 
@@ -19,4 +29,22 @@ public class JacksonConfig {
     mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
     return mapper;
   }
+
+  @Bean
+  public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter() {
+    ObjectMapper mapper = CBORMapper.builder()
+        .addModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .build();
+    return new MappingJackson2CborHttpMessageConverter(mapper);
+  }
+
+  @Bean
+  public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter() {
+    ObjectMapper mapper = SmileMapper.builder()
+        .addModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .build();
+    return new MappingJackson2SmileHttpMessageConverter(mapper);
+  }
 }
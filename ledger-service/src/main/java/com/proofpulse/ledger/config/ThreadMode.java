@@ -0,0 +1,32 @@
+package com.proofpulse.ledger.config;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Platform vs virtual threads for the service's own executors.
+ *
+ * PP_VIRTUAL_THREADS=true also switches Tomcat and @Scheduled to virtual
+ * threads (spring.threads.virtual.enabled in application.yml), and bounds
+ * JDBC with {@link BoundedDataSource} so virtual threads queue on a semaphore
+ * sized to the pool instead of piling into Hikari.
+ */
+public final class ThreadMode {
+
+  public static final boolean VIRTUAL =
+      Boolean.parseBoolean(System.getenv().getOrDefault("PP_VIRTUAL_THREADS", "false"));
+
+  private ThreadMode() {}
+
+  /** Daemon platform threads, or virtual threads (always daemon) in virtual mode. */
+  public static ThreadFactory factory(String name) {
+    if (VIRTUAL) return Thread.ofVirtual().name(name + "-", 1).factory();
+
+    AtomicInteger seq = new AtomicInteger();
+    return r -> {
+      Thread t = new Thread(r, name + "-" + seq.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    };
+  }
+}
@@ -0,0 +1,24 @@
+package com.proofpulse.ledger.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** In virtual-thread mode, bounds the primary DataSource like the shard pools (see ShardConfig). */
+@Configuration
+public class VirtualThreadConfig {
+
+  @Bean
+  public static BeanPostProcessor boundedPrimaryDataSource() {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (ThreadMode.VIRTUAL && bean instanceof HikariDataSource hikari) {
+          return new BoundedDataSource(hikari, hikari.getMaximumPoolSize());
+        }
+        return bean;
+      }
+    };
+  }
+}
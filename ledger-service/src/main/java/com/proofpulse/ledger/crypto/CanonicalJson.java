@@ -72,7 +72,9 @@ public final class CanonicalJson {
     }
 
     if (node.isNumber()) {
-      BigDecimal bd = node.decimalValue().stripTrailingZeros();
+      // CBOR/Smile can carry 32-bit floats; widen via their shortest decimal form like JSON text would
+      BigDecimal bd = (node.isFloat() ? new BigDecimal(Float.toString(node.floatValue())) : node.decimalValue())
+          .stripTrailingZeros();
       if (bd.compareTo(BigDecimal.ZERO) == 0) bd = BigDecimal.ZERO; // avoid "-0"
       return new DecimalNode(bd);
     }
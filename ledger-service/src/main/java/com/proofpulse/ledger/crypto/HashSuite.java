@@ -0,0 +1,116 @@
+package com.proofpulse.ledger.crypto;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Hash suites for event_hash. Every row records the id of the suite that
+ * produced its hash (evidence_events.hash_alg), so ingest, verify, repair and
+ * sealing all hash a row the same way. A chain keeps the suite of its genesis
+ * row, chosen by the optional "hashSuite" field of the event that creates the
+ * chain, else PP_HASH_SUITE.
+ *
+ * SHA256_LEGACY is the original string join, sha256(prevHex + "|" + canonicalEvent),
+ * used by every chain written before suites existed. The other suites hash
+ * length-prefixed bytes instead of a separator:
+ *
+ *   "proofpulse/event-hash/v1" 0x00 | suite id (1 byte)
+ *   | len(prev) (4 bytes BE) | prev hash bytes (empty for genesis)
+ *   | len(event) (4 bytes BE) | canonical event JSON, UTF-8
+ *
+ * SHA-512/256 is usually the faster of the two on 64-bit CPUs without SHA extensions.
+ */
+public enum HashSuite {
+
+  SHA256_LEGACY(0, "sha256-legacy", "SHA-256"),
+  SHA256(1, "sha256", "SHA-256"),
+  SHA512_256(2, "sha512-256", "SHA-512/256");
+
+  private static final byte[] DOMAIN = "proofpulse/event-hash/v1\0".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] SEPARATOR = {'|'};
+
+  private static final HashSuite FOR_NEW_CHAINS =
+      byName(System.getenv().getOrDefault("PP_HASH_SUITE", SHA256_LEGACY.label));
+
+  private final int id;
+  private final String label;
+  private final MessageDigest prototype;
+
+  HashSuite(int id, String label, String algorithm) {
+    this.id = id;
+    this.label = label;
+    try {
+      this.prototype = MessageDigest.getInstance(algorithm);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /** Stored in evidence_events.hash_alg. */
+  public int id() {
+    return id;
+  }
+
+  /** Name used in PP_HASH_SUITE and in API responses. */
+  public String label() {
+    return label;
+  }
+
+  public static HashSuite forNewChains() {
+    return FOR_NEW_CHAINS;
+  }
+
+  public static HashSuite byId(int id) {
+    for (HashSuite s : values()) {
+      if (s.id == id) return s;
+    }
+    throw new IllegalArgumentException("Unknown hash suite id: " + id);
+  }
+
+  public static HashSuite byName(String label) {
+    for (HashSuite s : values()) {
+      if (s.label.equalsIgnoreCase(label)) return s;
+    }
+    throw new IllegalArgumentException("Unknown hash suite: " + label);
+  }
+
+  /** event_hash for a row whose predecessor's event_hash is prevHashOrNull (null at genesis). */
+  public String eventHash(String prevHashOrNull, String canonicalEvent) {
+    MessageDigest md = digest();
+    byte[] event = canonicalEvent.getBytes(StandardCharsets.UTF_8);
+
+    if (this == SHA256_LEGACY) {
+      if (prevHashOrNull != null) md.update(prevHashOrNull.getBytes(StandardCharsets.UTF_8));
+      md.update(SEPARATOR);
+      md.update(event);
+    } else {
+      byte[] prev = prevHashOrNull == null ? new byte[0] : HexFormat.of().parseHex(prevHashOrNull);
+      md.update(DOMAIN);
+      md.update((byte) id);
+      md.update(int32(prev.length));
+      md.update(prev);
+      md.update(int32(event.length));
+      md.update(event);
+    }
+    return HexFormat.of().formatHex(md.digest());
+  }
+
+  private MessageDigest digest() {
+    // Cloning skips the provider lookup of getInstance on every event
+    try {
+      return (MessageDigest) prototype.clone();
+    } catch (CloneNotSupportedException e) {
+      try {
+        return MessageDigest.getInstance(prototype.getAlgorithm());
+      } catch (NoSuchAlgorithmException impossible) {
+        throw new IllegalStateException(impossible);
+      }
+    }
+  }
+
+  private static byte[] int32(int v) {
+    return new byte[]{(byte) (v >>> 24), (byte) (v >>> 16), (byte) (v >>> 8), (byte) v};
+  }
+}
@@ -0,0 +1,267 @@
+package com.proofpulse.ledger.feed;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proofpulse.ledger.config.ThreadMode;
+import com.proofpulse.ledger.shard.Shard;
+import com.proofpulse.ledger.shard.ShardRouter;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans committed appends out to feed subscribers.
+ *
+ * {@link FeedNotifier} issues pg_notify once appends have committed, so every
+ * instance sees the appends of all of them. One listener thread per shard
+ * holds a dedicated (non-pooled) connection LISTENing on {@link #CHANNEL} and
+ * hands each notification to every matching subscriber.
+ *
+ * Subscribers have a bounded buffer drained by a small sender pool. A
+ * subscriber whose buffer is full is dropped rather than slowing the others
+ * down; it reconnects and resumes from the last chain index it received.
+ */
+@Component
+public class ChangeFeed {
+
+  public static final String CHANNEL = "ledger_events";
+
+  /** PP_FEED_ENABLED=false: no notifications, no listeners, and /feed/events is not served. */
+  public static final boolean ENABLED =
+      Boolean.parseBoolean(System.getenv().getOrDefault("PP_FEED_ENABLED", "true"));
+
+  private static final Logger log = LoggerFactory.getLogger(ChangeFeed.class);
+
+  private final int bufferSize =
+      Integer.parseInt(System.getenv().getOrDefault("PP_FEED_CLIENT_BUFFER", "1000"));
+  private final int maxClients =
+      Integer.parseInt(System.getenv().getOrDefault("PP_FEED_MAX_CLIENTS", "1000"));
+
+  private final ShardRouter shards;
+  private final ObjectMapper om;
+  private final ExecutorService senders;
+  private final Set<Subscription> subscribers = ConcurrentHashMap.newKeySet();
+  private final List<Thread> listeners = new ArrayList<>();
+  private volatile boolean running = true;
+
+  private final Counter delivered;
+  private final Counter dropped;
+
+  /** Receives events for one subscriber; called from sender threads, one call at a time. */
+  public interface Sink {
+    void send(FeedEvent event) throws Exception;
+
+    void close(String reason);
+  }
+
+  /** Sends stored events before live delivery starts; returns the last chain index sent, or -1. */
+  @FunctionalInterface
+  public interface Backfill {
+    long sendStored() throws Exception;
+  }
+
+  public ChangeFeed(ShardRouter shards, ObjectMapper om, MeterRegistry metrics) {
+    this.shards = shards;
+    this.om = om;
+
+    int threads = Integer.parseInt(System.getenv().getOrDefault("PP_FEED_SENDER_THREADS", "4"));
+    this.senders = Executors.newFixedThreadPool(threads, ThreadMode.factory("feed-sender"));
+
+    this.delivered = metrics.counter("ledger.feed.delivered");
+    this.dropped = metrics.counter("ledger.feed.dropped");
+    Gauge.builder("ledger.feed.subscribers", subscribers, Set::size).register(metrics);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void startListeners() {
+    if (!ENABLED) return;
+    for (Shard shard : shards.all()) {
+      Thread t = new Thread(() -> listen(shard), "feed-listener-" + shard.id());
+      t.setDaemon(true);
+      t.start();
+      listeners.add(t);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    running = false;
+    listeners.forEach(Thread::interrupt);
+    senders.shutdownNow();
+  }
+
+  /**
+   * Registers a subscriber (null filters match anything). Nothing is delivered
+   * until {@link #start}; live events are buffered meanwhile. Returns null when
+   * the subscriber limit is reached.
+   */
+  public Subscription subscribe(String projectId, String artifactId, String type, Sink sink) {
+    if (subscribers.size() >= maxClients) return null;
+    Subscription s = new Subscription(projectId, artifactId, type, sink, bufferSize);
+    subscribers.add(s);
+    return s;
+  }
+
+  /** Runs the backfill (if any) on a sender thread, then switches the subscriber to live delivery. */
+  public void start(Subscription s, Backfill backfill) {
+    senders.execute(() -> {
+      try {
+        // Live events already buffered for indexes the backfill covered are skipped
+        s.skipThrough = (backfill == null) ? -1 : backfill.sendStored();
+      } catch (Exception ex) {
+        close(s, "backfill failed: " + ex.getMessage());
+        return;
+      }
+      s.live = true;
+      schedule(s);
+    });
+  }
+
+  public void unsubscribe(Subscription s) {
+    s.closed = true;
+    subscribers.remove(s);
+  }
+
+  /** Hands one committed event to every matching subscriber; called by the shard listeners. */
+  void publish(FeedEvent e) {
+    for (Subscription s : subscribers) {
+      if (!s.matches(e)) continue;
+      if (!s.buffer.offer(e)) {
+        dropped.increment();
+        close(s, "slow consumer: buffer of " + bufferSize + " events is full");
+        continue;
+      }
+      if (s.live) schedule(s);
+    }
+  }
+
+  private void schedule(Subscription s) {
+    if (!s.closed && s.draining.compareAndSet(false, true)) {
+      senders.execute(() -> drain(s));
+    }
+  }
+
+  private void drain(Subscription s) {
+    try {
+      FeedEvent e;
+      while (!s.closed && (e = s.buffer.poll()) != null) {
+        if (e.chainIndex() <= s.skipThrough) continue;
+        s.sink.send(e);
+        delivered.increment();
+      }
+    } catch (Exception ex) {
+      // Client went away
+      unsubscribe(s);
+      return;
+    } finally {
+      s.draining.set(false);
+    }
+    if (!s.buffer.isEmpty()) schedule(s);
+  }
+
+  private void close(Subscription s, String reason) {
+    if (s.closed) return;
+    unsubscribe(s);
+    senders.execute(() -> s.sink.close(reason));
+  }
+
+  private void listen(Shard shard) {
+    while (running) {
+      try (Connection conn = openDedicated(shard)) {
+        try (Statement st = conn.createStatement()) {
+          st.execute("LISTEN " + CHANNEL);
+        }
+        PGConnection pg = conn.unwrap(PGConnection.class);
+
+        while (running) {
+          PGNotification[] notes = pg.getNotifications(10_000);
+          if (notes == null) continue;
+          for (PGNotification n : notes) {
+            FeedEvent e = parse(n.getParameter());
+            if (e != null) publish(e);
+          }
+        }
+      } catch (Exception ex) {
+        if (!running) return;
+        // Notifications sent while disconnected are lost: make every subscriber resume from its last index
+        log.warn("feed listener on shard {} failed, reconnecting: {}", shard.id(), ex.getMessage());
+        for (Subscription s : subscribers) close(s, "feed listener reconnecting");
+        try {
+          Thread.sleep(2_000);
+        } catch (InterruptedException ie) {
+          return;
+        }
+      }
+    }
+  }
+
+  private FeedEvent parse(String payload) {
+    try {
+      JsonNode n = om.readTree(payload);
+      return new FeedEvent(
+          n.get("projectId").asText(),
+          n.get("artifactId").asText(),
+          n.get("chainIndex").asLong(),
+          n.get("eventId").asText(),
+          n.get("type").asText(),
+          n.get("eventHash").asText()
+      );
+    } catch (Exception ex) {
+      log.warn("ignoring malformed feed notification: {}", ex.getMessage());
+      return null;
+    }
+  }
+
+  /** LISTEN needs a long-lived session: open it outside the pool so it never holds a pooled connection. */
+  private static Connection openDedicated(Shard shard) throws Exception {
+    HikariDataSource h = shard.hikari();
+    if (h != null) {
+      return DriverManager.getConnection(h.getJdbcUrl(), h.getUsername(), h.getPassword());
+    }
+    return shard.dataSource().getConnection();
+  }
+
+  public static final class Subscription {
+    private final String projectId;
+    private final String artifactId;
+    private final String type;
+    private final Sink sink;
+    private final BlockingQueue<FeedEvent> buffer;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean live;
+    private volatile boolean closed;
+    private volatile long skipThrough = -1;
+
+    private Subscription(String projectId, String artifactId, String type, Sink sink, int bufferSize) {
+      this.projectId = projectId;
+      this.artifactId = artifactId;
+      this.type = type;
+      this.sink = sink;
+      this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    private boolean matches(FeedEvent e) {
+      return (projectId == null || projectId.equals(e.projectId()))
+          && (artifactId == null || artifactId.equals(e.artifactId()))
+          && (type == null || type.equals(e.type()));
+    }
+  }
+}
@@ -0,0 +1,117 @@
+package com.proofpulse.ledger.feed;
+
+import com.proofpulse.ledger.chain.ChainVerificationService;
+import org.springframework.http.MediaType;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Server-Sent-Events feed of committed appends.
+ *
+ * Filters are optional. When projectId and artifactId are both given, the
+ * feed can resume: stored events from fromIndex (or Last-Event-ID + 1) are
+ * sent first, then live ones. The SSE id of every event is its chain index.
+ */
+@RestController
+@RequestMapping("/feed")
+public class FeedController {
+
+  private static final long TIMEOUT_MS =
+      Long.parseLong(System.getenv().getOrDefault("PP_FEED_TIMEOUT_MS", "1800000"));
+  private static final int BACKFILL_PAGE = 1000;
+
+  private final ChangeFeed feed;
+  private final ChainVerificationService chains;
+
+  public FeedController(ChangeFeed feed, ChainVerificationService chains) {
+    this.feed = feed;
+    this.chains = chains;
+  }
+
+  @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter events(
+      @RequestParam(required = false) String projectId,
+      @RequestParam(required = false) String artifactId,
+      @RequestParam(required = false) String type,
+      @RequestParam(required = false) Long fromIndex,
+      @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+  ) {
+    if (!ChangeFeed.ENABLED) throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Feed is disabled");
+    Long resumeFrom = fromIndex;
+    if (resumeFrom == null && lastEventId != null) {
+      try {
+        resumeFrom = Long.parseLong(lastEventId.trim()) + 1;
+      } catch (NumberFormatException ex) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Last-Event-ID must be a chain index");
+      }
+    }
+    if (resumeFrom != null && (projectId == null || artifactId == null)) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Resuming needs projectId and artifactId");
+    }
+
+    SseEmitter emitter = new SseEmitter(TIMEOUT_MS);
+    ChangeFeed.Subscription sub = feed.subscribe(projectId, artifactId, type, new ChangeFeed.Sink() {
+      @Override
+      public void send(FeedEvent event) throws Exception {
+        emitter.send(SseEmitter.event()
+            .id(String.valueOf(event.chainIndex()))
+            .name("appended")
+            .data(event, MediaType.APPLICATION_JSON));
+      }
+
+      @Override
+      public void close(String reason) {
+        try {
+          emitter.send(SseEmitter.event().name("closed").data(Map.of("reason", reason), MediaType.APPLICATION_JSON));
+        } catch (Exception ignored) {
+          // client already gone
+        }
+        emitter.complete();
+      }
+    });
+    if (sub == null) {
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many feed subscribers");
+    }
+
+    emitter.onCompletion(() -> feed.unsubscribe(sub));
+    emitter.onTimeout(() -> feed.unsubscribe(sub));
+    emitter.onError(ex -> feed.unsubscribe(sub));
+
+    long from = (resumeFrom == null) ? -1 : resumeFrom;
+    feed.start(sub, (resumeFrom == null) ? null : () -> backfill(emitter, projectId, artifactId, type, from));
+    return emitter;
+  }
+
+  /** Sends stored events of one chain from fromIndex; returns the last index sent (or fromIndex - 1). */
+  @SuppressWarnings("unchecked")
+  private long backfill(SseEmitter emitter, String projectId, String artifactId, String type, long fromIndex) throws Exception {
+    long next = fromIndex;
+    while (true) {
+      long requested = next;
+      Map<String, Object> page = chains.exportEvents(projectId, artifactId, requested, BACKFILL_PAGE);
+      List<Map<String, Object>> events = (List<Map<String, Object>>) page.get("events");
+      for (Map<String, Object> e : events) {
+        long chainIndex = ((Number) e.get("chainIndex")).longValue();
+        next = chainIndex + 1;
+        if (type != null && !type.equals(e.get("type"))) continue;
+        emitter.send(SseEmitter.event()
+            .id(String.valueOf(chainIndex))
+            .name("appended")
+            .data(new FeedEvent(projectId, artifactId, chainIndex,
+                (String) e.get("eventId"), (String) e.get("type"), (String) e.get("eventHash")),
+                MediaType.APPLICATION_JSON));
+      }
+      Object nextIndex = page.get("nextIndex");
+      if (nextIndex == null) return next - 1;
+      // exportEvents skips gaps (e.g. before a sealed segment); never re-request the same page
+      long resume = ((Number) nextIndex).longValue();
+      if (resume <= requested) return next - 1;
+      next = resume;
+    }
+  }
+}
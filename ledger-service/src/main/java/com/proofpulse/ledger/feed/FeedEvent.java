@@ -0,0 +1,11 @@
+package com.proofpulse.ledger.feed;
+
+/** One committed append as seen by feed subscribers. The payload is fetched separately via /chains/events. */
+public record FeedEvent(
+    String projectId,
+    String artifactId,
+    long chainIndex,
+    String eventId,
+    String type,
+    String eventHash
+) {}
@@ -0,0 +1,126 @@
+package com.proofpulse.ledger.feed;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.proofpulse.ledger.chain.ChainAppended;
+import com.proofpulse.ledger.config.ThreadMode;
+import com.proofpulse.ledger.crypto.EventCanonical;
+import com.proofpulse.ledger.shard.Shard;
+import com.proofpulse.ledger.shard.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Sends the pg_notify for committed appends, outside their transaction.
+ *
+ * A transaction that calls NOTIFY takes Postgres' database-wide notify lock
+ * at commit, which would serialize every ingest commit on the shard. Instead
+ * appends are queued once committed and one sender per shard notifies
+ * whatever has queued up in a single statement, so the lock is taken once per
+ * batch and never by an ingest. Each batch is sent in chain order.
+ *
+ * Delivery is best effort: appends still queued when the process stops, or in
+ * a batch that fails to send, reach no live subscriber. Subscribers recover
+ * them by resuming from their last chain index. PP_FEED_ENABLED=false turns
+ * the feed off, and with it all notifications.
+ */
+@Component
+public class FeedNotifier {
+
+  private static final Logger log = LoggerFactory.getLogger(FeedNotifier.class);
+
+  private static final int MAX_BATCH = 500;
+
+  private static final Comparator<ChainAppended> CHAIN_ORDER = Comparator
+      .comparing(ChainAppended::projectId)
+      .thenComparing(ChainAppended::artifactId)
+      .thenComparingLong(ChainAppended::chainIndex);
+
+  private final int queueSize =
+      Integer.parseInt(System.getenv().getOrDefault("PP_FEED_NOTIFY_QUEUE", "100000"));
+
+  private final ShardRouter shards;
+  private final Map<Integer, BlockingQueue<ChainAppended>> queues = new ConcurrentHashMap<>();
+  private final List<Thread> senders = new ArrayList<>();
+  private final Counter dropped;
+  private volatile boolean running = true;
+
+  public FeedNotifier(ShardRouter shards, MeterRegistry metrics) {
+    this.shards = shards;
+    this.dropped = metrics.counter("ledger.feed.notify.dropped");
+  }
+
+  @EventListener
+  public void onAppended(ChainAppended e) {
+    if (!ChangeFeed.ENABLED) return;
+    Shard shard = shards.forChain(e.projectId(), e.artifactId());
+    if (!queues.computeIfAbsent(shard.id(), id -> startSender(shard)).offer(e)) dropped.increment();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    running = false;
+    synchronized (senders) {
+      senders.forEach(Thread::interrupt);
+    }
+  }
+
+  private BlockingQueue<ChainAppended> startSender(Shard shard) {
+    BlockingQueue<ChainAppended> queue = new LinkedBlockingQueue<>(queueSize);
+    Thread t = ThreadMode.factory("feed-notify-" + shard.id()).newThread(() -> send(shard.jdbc(), queue));
+    t.start();
+    synchronized (senders) {
+      senders.add(t);
+    }
+    return queue;
+  }
+
+  private void send(JdbcTemplate jdbc, BlockingQueue<ChainAppended> queue) {
+    List<ChainAppended> batch = new ArrayList<>();
+    while (running) {
+      try {
+        batch.add(queue.take());
+      } catch (InterruptedException e) {
+        return;
+      }
+      queue.drainTo(batch, MAX_BATCH - 1);
+      try {
+        notifyBatch(jdbc, batch);
+      } catch (Exception ex) {
+        log.warn("feed notify of {} appends failed: {}", batch.size(), ex.getMessage());
+        dropped.increment(batch.size());
+      }
+      batch.clear();
+    }
+  }
+
+  /** One autocommitted statement (one notify lock) for the whole batch, in chain order. */
+  static void notifyBatch(JdbcTemplate jdbc, List<ChainAppended> batch) {
+    batch.sort(CHAIN_ORDER);
+    ArrayNode notes = EventCanonical.mapper().createArrayNode();
+    for (ChainAppended e : batch) {
+      ObjectNode note = notes.addObject();
+      note.put("projectId", e.projectId());
+      note.put("artifactId", e.artifactId());
+      note.put("chainIndex", e.chainIndex());
+      note.put("eventId", e.eventId().toString());
+      note.put("type", e.type());
+      note.put("eventHash", e.eventHash());
+    }
+    jdbc.update("SELECT pg_notify(?, n) FROM jsonb_array_elements_text(?::jsonb) AS n", ChangeFeed.CHANNEL, notes.toString());
+  }
+}
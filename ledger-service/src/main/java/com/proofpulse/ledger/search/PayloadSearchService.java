@@ -0,0 +1,192 @@
+package com.proofpulse.ledger.search;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.proofpulse.ledger.crypto.EventCanonical;
+import com.proofpulse.ledger.shard.Shard;
+import com.proofpulse.ledger.shard.ShardRouter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Searches event payloads within a project, in (artifact_id, chain_index) keyset order.
+ *
+ * path+value always means text equality, payload #>> path = value, so value=5
+ * matches {"severity":5} and {"severity":"5"} alike. On a configured hot path it
+ * uses the expression index (already in keyset order); on any other path the GIN
+ * index narrows the rows first through containment of the JSON values that
+ * text can stand for. contains is plain containment on the GIN index. Each result
+ * carries its chain position and hashes so it can be checked against the chain.
+ * Only hot rows are searched; sealed segments are not indexed. Payloads offloaded
+ * to the blob store (stored as a {"$blobRef": ...} reference, see PayloadOffloader)
+ * cannot be found: only the reference is in the row.
+ *
+ * artifact_id is ordered with COLLATE "C" in SQL and by UTF-8 bytes in Java, so
+ * the per-shard order, the cursor predicate and the merge all agree whatever the
+ * database collation is.
+ */
+@Service
+public class PayloadSearchService {
+
+  private static final ObjectMapper OM = EventCanonical.mapper();
+
+  private final ShardRouter shards;
+  private final SearchIndexes indexes;
+
+  public PayloadSearchService(ShardRouter shards, SearchIndexes indexes) {
+    this.shards = shards;
+    this.indexes = indexes;
+  }
+
+  /**
+   * @param contains JSON object the payload must contain (payload @> contains), may be null
+   * @param path     dot path compared to value as text, may be null
+   * @param cursor   nextCursor from the previous page, or null
+   */
+  public Map<String, Object> search(
+      String projectId,
+      String artifactId,
+      String type,
+      JsonNode contains,
+      String path,
+      String value,
+      int limit,
+      String cursor
+  ) {
+    if (contains != null && !contains.isObject()) throw new IllegalArgumentException("contains must be a JSON object");
+    if (path != null && !SearchIndexes.PATH.matcher(path).matches()) throw new IllegalArgumentException("Invalid path: " + path);
+    if ((path == null) != (value == null)) throw new IllegalArgumentException("path and value go together");
+    if (contains == null && path == null) throw new IllegalArgumentException("Give contains or path+value");
+
+    StringBuilder sql = new StringBuilder("""
+        SELECT project_id, artifact_id, chain_index, event_id, type, ts, payload::text AS payload, prev_hash, event_hash
+        FROM evidence_events
+        WHERE project_id=?
+        """);
+    List<Object> args = new ArrayList<>(List.of(projectId));
+
+    if (path != null) {
+      sql.append(" AND ").append(SearchIndexes.pathExpression(path)).append(" = ?");
+      args.add(value);
+    }
+    if (path != null && !indexes.isIndexed(path)) {
+      List<JsonNode> candidates = candidates(path, value);
+      if (!candidates.isEmpty()) {
+        sql.append(" AND (").append(String.join(" OR ", Collections.nCopies(candidates.size(), "payload @> (?::jsonb)"))).append(")");
+        for (JsonNode c : candidates) args.add(c.toString());
+      }
+    }
+    if (contains != null) {
+      sql.append(" AND payload @> (?::jsonb)");
+      args.add(contains.toString());
+    }
+    if (artifactId != null) { sql.append(" AND artifact_id=?"); args.add(artifactId); }
+    if (type != null) { sql.append(" AND type=?"); args.add(type); }
+
+    if (cursor != null) {
+      String[] after = decodeCursor(cursor);
+      sql.append(" AND (artifact_id COLLATE \"C\", chain_index) > (?, ?)");
+      args.add(after[0]);
+      args.add(Long.parseLong(after[1]));
+    }
+    sql.append(" ORDER BY artifact_id COLLATE \"C\", chain_index LIMIT ?");
+    args.add(limit + 1);
+
+    // Routing by chain spreads a project over shards: take limit+1 from each and merge
+    List<Shard> targets = (artifactId != null) ? List.of(shards.forChain(projectId, artifactId)) : shards.forProject(projectId);
+    List<Map<String, Object>> rows = new ArrayList<>();
+    for (Shard shard : targets) {
+      JdbcTemplate reader = (shard.replicaJdbc() != null) ? shard.replicaJdbc() : shard.jdbc();
+      rows.addAll(reader.query(sql.toString(), (rs, i) -> {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("projectId", rs.getString("project_id"));
+        m.put("artifactId", rs.getString("artifact_id"));
+        m.put("chainIndex", rs.getLong("chain_index"));
+        m.put("eventId", rs.getString("event_id"));
+        m.put("type", rs.getString("type"));
+        m.put("timestamp", rs.getTimestamp("ts").toInstant().toString());
+        m.put("prevHash", rs.getString("prev_hash"));
+        m.put("eventHash", rs.getString("event_hash"));
+        try {
+          m.put("payload", OM.readTree(rs.getString("payload")));
+        } catch (Exception ex) {
+          throw new IllegalStateException("Unreadable payload at " + m.get("artifactId") + "#" + m.get("chainIndex"), ex);
+        }
+        return m;
+      }, args.toArray()));
+    }
+    rows.sort(KEYSET_ORDER);
+
+    String nextCursor = null;
+    if (rows.size() > limit) {
+      rows = new ArrayList<>(rows.subList(0, limit));
+      Map<String, Object> last = rows.get(limit - 1);
+      nextCursor = encodeCursor((String) last.get("artifactId"), (Long) last.get("chainIndex"));
+    }
+
+    Map<String, Object> out = new LinkedHashMap<>();
+    out.put("projectId", projectId);
+    out.put("indexedPath", path != null && indexes.isIndexed(path));
+    out.put("results", rows);
+    out.put("nextCursor", nextCursor);
+    return out;
+  }
+
+  /** (artifactId in UTF-8 byte order, chainIndex): the order of COLLATE "C" on a UTF8 database. */
+  static final Comparator<Map<String, Object>> KEYSET_ORDER = Comparator
+      .comparing((Map<String, Object> m) -> ((String) m.get("artifactId")).getBytes(StandardCharsets.UTF_8), Arrays::compareUnsigned)
+      .thenComparingLong(m -> (Long) m.get("chainIndex"));
+
+  /**
+   * Containment documents covering every payload whose path reads as value in text:
+   * the string, plus the number or boolean it spells. Empty when containment cannot
+   * cover them all (a numeric segment may index an array, or the value is JSON
+   * object/array text), and the text comparison alone filters.
+   */
+  static List<JsonNode> candidates(String path, String value) {
+    String[] segments = path.split("\\.");
+    for (String s : segments) {
+      if (s.chars().allMatch(Character::isDigit)) return List.of();
+    }
+    List<JsonNode> leaves = new ArrayList<>(List.of(TextNode.valueOf(value)));
+    try {
+      JsonNode typed = OM.readTree(value);
+      if (typed == null || typed.isContainerNode()) return List.of();
+      if (typed.isNumber() || typed.isBoolean()) leaves.add(typed);
+    } catch (Exception notJson) {
+      // plain text: only a string can read as it
+    }
+
+    List<JsonNode> out = new ArrayList<>();
+    for (JsonNode leaf : leaves) {
+      ObjectNode root = OM.createObjectNode();
+      ObjectNode at = root;
+      for (int i = 0; i < segments.length - 1; i++) at = at.putObject(segments[i]);
+      at.set(segments[segments.length - 1], leaf);
+      out.add(root);
+    }
+    return out;
+  }
+
+  private static String encodeCursor(String artifactId, long chainIndex) {
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString((chainIndex + ":" + artifactId).getBytes(StandardCharsets.UTF_8));
+  }
+
+  /** Returns {artifactId, chainIndex}. */
+  private static String[] decodeCursor(String cursor) {
+    try {
+      String s = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int colon = s.indexOf(':');
+      Long.parseLong(s.substring(0, colon));
+      return new String[]{s.substring(colon + 1), s.substring(0, colon)};
+    } catch (RuntimeException ex) {
+      throw new IllegalArgumentException("Invalid cursor");
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package com.proofpulse.ledger.search;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/search")
+public class SearchController {
+
+  private final PayloadSearchService search;
+  private final ObjectMapper om;
+
+  public SearchController(PayloadSearchService search, ObjectMapper om) {
+    this.search = search;
+    this.om = om;
+  }
+
+  /**
+   * e.g. /search/events?projectId=p&path=commitSha&value=abc123
+   *      /search/events?projectId=p&type=SCAN&contains={"severity":"critical"}
+   * Pass nextCursor back as cursor for the next page.
+   */
+  @GetMapping("/events")
+  public ResponseEntity<?> searchEvents(
+      @RequestParam String projectId,
+      @RequestParam(required = false) String artifactId,
+      @RequestParam(required = false) String type,
+      @RequestParam(required = false) String contains,
+      @RequestParam(required = false) String path,
+      @RequestParam(required = false) String value,
+      @RequestParam(defaultValue = "100") int limit,
+      @RequestParam(required = false) String cursor
+  ) {
+    try {
+      return ResponseEntity.ok(search.search(
+          projectId, artifactId, type,
+          contains == null ? null : om.readTree(contains),
+          path, value,
+          Math.max(1, Math.min(limit, 1000)),
+          cursor
+      ));
+    } catch (IllegalArgumentException | com.fasterxml.jackson.core.JsonProcessingException ex) {
+      return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(ex.getMessage())));
+    }
+  }
+}
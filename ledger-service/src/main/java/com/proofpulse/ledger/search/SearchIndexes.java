@@ -0,0 +1,134 @@
+package com.proofpulse.ledger.search;
+
+import com.proofpulse.ledger.config.ThreadMode;
+import com.proofpulse.ledger.shard.Shard;
+import com.proofpulse.ledger.shard.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Payload search indexes on evidence_events, built in the background after startup:
+ *
+ *  - evp_gin: GIN (payload jsonb_path_ops), serves containment (payload @> ...)
+ *  - evpc_path_<path>: btree (project_id, payload #>> path, artifact_id COLLATE "C", chain_index)
+ *    for each hot path in PP_SEARCH_INDEXED_PATHS (comma list of dot paths), serving equality
+ *    in keyset order without a sort. Keyset order is byte order ("C"), independent of the
+ *    database collation, so pages merged across shards line up with the cursor.
+ *
+ * evidence_events is partitioned, and CREATE INDEX on the parent would block ingest for
+ * the whole build. Instead the parent index is created ON ONLY (invalid, no data), each
+ * partition's index is built CONCURRENTLY and attached; the parent becomes valid once
+ * all partitions are attached. Rerunning resumes where a previous build stopped.
+ */
+@Component
+public class SearchIndexes {
+
+  private static final Logger log = LoggerFactory.getLogger(SearchIndexes.class);
+
+  /** Dot path segments are embedded in DDL and in '{a,b}' literals, so keep them plain. */
+  static final Pattern PATH = Pattern.compile("[A-Za-z0-9_]+(\\.[A-Za-z0-9_]+)*");
+
+  private final boolean build =
+      Boolean.parseBoolean(System.getenv().getOrDefault("PP_SEARCH_BUILD_INDEXES", "true"));
+  private final List<String> hotPaths;
+
+  private final ShardRouter shards;
+
+  public SearchIndexes(ShardRouter shards) {
+    this.shards = shards;
+
+    List<String> paths = new ArrayList<>();
+    for (String p : System.getenv().getOrDefault("PP_SEARCH_INDEXED_PATHS", "").split(",")) {
+      String path = p.trim();
+      if (path.isEmpty()) continue;
+      if (!PATH.matcher(path).matches()) throw new IllegalArgumentException("Invalid PP_SEARCH_INDEXED_PATHS entry: " + path);
+      paths.add(path);
+    }
+    this.hotPaths = List.copyOf(paths);
+  }
+
+  /** Paths with an expression index; equality on these skips the GIN index. */
+  public boolean isIndexed(String path) {
+    return hotPaths.contains(path);
+  }
+
+  /** payload #>> '{a,b}' for a validated dot path; must match the index expression exactly. */
+  static String pathExpression(String path) {
+    return "(payload #>> '{" + String.join(",", path.split("\\.")) + "}')";
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void buildInBackground() {
+    if (!build) return;
+    ThreadMode.factory("search-index-build").newThread(this::buildAll).start();
+  }
+
+  private void buildAll() {
+    for (Shard shard : shards.all()) {
+      try {
+        ensure(shard.jdbc(), "evp_gin", "USING GIN (payload jsonb_path_ops)");
+        for (String path : hotPaths) {
+          String name = indexName(path);
+          ensure(shard.jdbc(), name, "(project_id, " + pathExpression(path) + ", artifact_id COLLATE \"C\", chain_index)");
+        }
+      } catch (Exception ex) {
+        log.warn("search index build on shard {} stopped: {}", shard.id(), ex.getMessage());
+      }
+    }
+  }
+
+  private static String indexName(String path) {
+    String name = "evpc_path_" + path.replace('.', '_').toLowerCase();
+    // Partition index names append "_pNN"; stay under the 63-byte identifier limit
+    return name.length() > 55 ? name.substring(0, 46) + "_" + Integer.toHexString(path.hashCode()) : name;
+  }
+
+  private void ensure(JdbcTemplate jdbc, String name, String definition) {
+    Boolean valid = jdbc.query(
+        "SELECT i.indisvalid FROM pg_class c JOIN pg_index i ON i.indexrelid = c.oid WHERE c.relname = ?",
+        ps -> ps.setString(1, name),
+        rs -> rs.next() ? rs.getBoolean(1) : null
+    );
+    if (Boolean.TRUE.equals(valid)) return;
+
+    long started = System.nanoTime();
+    jdbc.execute("CREATE INDEX IF NOT EXISTS " + name + " ON ONLY evidence_events " + definition);
+
+    List<String> partitions = jdbc.queryForList("""
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        JOIN pg_class p ON p.oid = i.inhparent
+        WHERE p.relname = 'evidence_events'
+        ORDER BY c.relname
+        """,
+        String.class
+    );
+
+    for (String partition : partitions) {
+      String child = name + "_" + partition.substring(partition.lastIndexOf('_') + 1);
+      Boolean childValid = jdbc.query(
+          "SELECT i.indisvalid FROM pg_class c JOIN pg_index i ON i.indexrelid = c.oid WHERE c.relname = ?",
+          ps -> ps.setString(1, child),
+          rs -> rs.next() ? rs.getBoolean(1) : null
+      );
+      // A failed concurrent build leaves an invalid index behind
+      if (Boolean.FALSE.equals(childValid)) jdbc.execute("DROP INDEX CONCURRENTLY IF EXISTS " + child);
+      if (!Boolean.TRUE.equals(childValid)) {
+        jdbc.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + child + " ON " + partition + " " + definition);
+      }
+      jdbc.execute("ALTER INDEX " + name + " ATTACH PARTITION " + child);
+    }
+
+    log.info("search index {} ready on {} partitions in {}s",
+        name, partitions.size(), (System.nanoTime() - started) / 1_000_000_000L);
+  }
+}
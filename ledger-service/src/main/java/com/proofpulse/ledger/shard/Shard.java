@@ -0,0 +1,52 @@
+package com.proofpulse.ledger.shard;
+
+import com.proofpulse.ledger.config.BoundedDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * One PostgreSQL database holding a subset of chains.
+ * Use {@link #tx()} for writes so statements and the advisory lock share the shard's connection.
+ * replicaJdbc is the shard's read replica, or null when none is configured.
+ */
+public record Shard(
+    int id,
+    DataSource dataSource,
+    JdbcTemplate jdbc,
+    TransactionTemplate tx,
+    JdbcTemplate replicaJdbc
+) {
+
+  public int maxPoolSize() {
+    HikariDataSource hikari = hikari();
+    return (hikari != null) ? hikari.getMaximumPoolSize() : 10;
+  }
+
+  /** True when nobody is waiting for a connection and more than `reserved` are free. */
+  public boolean hasHeadroom(int reserved) {
+    if (dataSource instanceof BoundedDataSource bounded && bounded.waiting() > 0) return false;
+    HikariDataSource hikari = hikari();
+    if (hikari != null) {
+      HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+      if (pool != null) {
+        return pool.getThreadsAwaitingConnection() == 0
+            && hikari.getMaximumPoolSize() - pool.getActiveConnections() > reserved;
+      }
+    }
+    return true;
+  }
+
+  /** The Hikari pool, also when wrapped in a {@link BoundedDataSource}. */
+  public HikariDataSource hikari() {
+    try {
+      return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+    } catch (SQLException e) {
+      return null;
+    }
+  }
+}
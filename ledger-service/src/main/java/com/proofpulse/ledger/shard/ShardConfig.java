@@ -0,0 +1,108 @@
+package com.proofpulse.ledger.shard;
+
+import com.proofpulse.ledger.config.BoundedDataSource;
+import com.proofpulse.ledger.config.ThreadMode;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the shard list.
+ *
+ * Without PP_SHARD_URLS there is a single shard backed by the primary
+ * spring.datasource (the pre-sharding layout). With PP_SHARD_URLS (comma-separated
+ * JDBC URLs) every URL gets its own pool and its own Flyway run; the primary
+ * datasource then only holds control tables (verify jobs, scrubber state).
+ *
+ * PP_REPLICA_URLS optionally lists one read replica per shard, in the same
+ * order (an empty entry means no replica for that shard). Replicas serve
+ * lag-checked read-only scans; see {@link ShardRouter#readerFor}.
+ */
+@Configuration
+public class ShardConfig {
+
+  private final List<HikariDataSource> ownedPools = new ArrayList<>();
+
+  @Bean
+  public ShardRouter shardRouter(
+      DataSource primary,
+      JdbcTemplate primaryJdbc,
+      PlatformTransactionManager primaryTx,
+      DataSourceProperties props
+  ) {
+    ShardRouter.KeyMode keyMode = ShardRouter.KeyMode.valueOf(
+        System.getenv().getOrDefault("PP_SHARD_KEY", "project").toUpperCase());
+
+    String username = System.getenv().getOrDefault("PP_SHARD_USERNAME", props.determineUsername());
+    String password = System.getenv().getOrDefault("PP_SHARD_PASSWORD", props.determinePassword());
+    int poolSize = Integer.parseInt(System.getenv().getOrDefault("PP_SHARD_POOL_SIZE", "10"));
+    String[] replicaUrls = System.getenv().getOrDefault("PP_REPLICA_URLS", "").split(",", -1);
+
+    String urls = System.getenv("PP_SHARD_URLS");
+    if (urls == null || urls.isBlank()) {
+      JdbcTemplate replica = replica(replicaUrls, 0, username, password, poolSize);
+      return new ShardRouter(
+          List.of(new Shard(0, primary, primaryJdbc, new TransactionTemplate(primaryTx), replica)), keyMode);
+    }
+
+    List<Shard> shards = new ArrayList<>();
+    for (String url : urls.split(",")) {
+      DataSource ds = bounded(pool(url, "shard-" + shards.size(), username, password, poolSize));
+
+      Flyway.configure()
+          .dataSource(ds)
+          .locations("classpath:db/migration")
+          .baselineOnMigrate(true)
+          .load()
+          .migrate();
+
+      shards.add(new Shard(
+          shards.size(),
+          ds,
+          new JdbcTemplate(ds),
+          new TransactionTemplate(new DataSourceTransactionManager(ds)),
+          replica(replicaUrls, shards.size(), username, password, poolSize)
+      ));
+    }
+    return new ShardRouter(shards, keyMode);
+  }
+
+  private JdbcTemplate replica(String[] replicaUrls, int shardId, String username, String password, int poolSize) {
+    if (shardId >= replicaUrls.length || replicaUrls[shardId].isBlank()) return null;
+    HikariDataSource ds = pool(replicaUrls[shardId], "replica-" + shardId, username, password, poolSize);
+    ds.setReadOnly(true);
+    return new JdbcTemplate(bounded(ds));
+  }
+
+  /** Virtual-thread mode: queue on a semaphore sized to the pool rather than inside Hikari. */
+  private static DataSource bounded(HikariDataSource ds) {
+    return ThreadMode.VIRTUAL ? new BoundedDataSource(ds, ds.getMaximumPoolSize()) : ds;
+  }
+
+  private HikariDataSource pool(String url, String name, String username, String password, int poolSize) {
+    HikariDataSource ds = new HikariDataSource();
+    ds.setJdbcUrl(url.trim());
+    ds.setUsername(username);
+    ds.setPassword(password);
+    ds.setMaximumPoolSize(poolSize);
+    ds.setPoolName(name);
+    ownedPools.add(ds);
+    return ds;
+  }
+
+  @PreDestroy
+  public void closePools() {
+    ownedPools.forEach(HikariDataSource::close);
+  }
+}
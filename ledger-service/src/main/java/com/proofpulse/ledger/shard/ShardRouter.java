@@ -0,0 +1,149 @@
+package com.proofpulse.ledger.shard;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Maps a chain to the shard that stores it.
+ *
+ * The routing key is projectId (PP_SHARD_KEY=project, default: a whole project
+ * lives on one shard) or projectId|artifactId (PP_SHARD_KEY=chain: chains of one
+ * project spread out, project-wide reads fan out). The key is hashed with SHA-256
+ * and placed with jump consistent hashing, so the mapping is stable across
+ * processes and adding a shard only moves ~1/N of the chains.
+ */
+public class ShardRouter {
+
+  public enum KeyMode { PROJECT, CHAIN }
+
+  private final List<Shard> shards;
+  private final KeyMode keyMode;
+  private final AtomicLong replicaReads = new AtomicLong();
+  private final AtomicLong primaryFallbacks = new AtomicLong();
+
+  public ShardRouter(List<Shard> shards, KeyMode keyMode) {
+    if (shards.isEmpty()) throw new IllegalArgumentException("At least one shard is required");
+    this.shards = List.copyOf(shards);
+    this.keyMode = keyMode;
+  }
+
+  public Shard forChain(String projectId, String artifactId) {
+    String key = (keyMode == KeyMode.PROJECT) ? projectId : projectId + "|" + artifactId;
+    return shards.get(jumpHash(stableHash(key), shards.size()));
+  }
+
+  /**
+   * The shard holding eventId's evidence_event_ids claim. It depends on the
+   * eventId alone, so a reused eventId meets its first claim whichever chain
+   * (and shard) it is sent to.
+   */
+  public Shard forEventId(UUID eventId) {
+    return shards.get(jumpHash(stableHash(eventId.toString()), shards.size()));
+  }
+
+  /** Shards that may hold chains of this project (one, unless routing by chain). */
+  public List<Shard> forProject(String projectId) {
+    if (keyMode == KeyMode.PROJECT || shards.size() == 1) {
+      return List.of(forChain(projectId, ""));
+    }
+    return shards;
+  }
+
+  /**
+   * JdbcTemplate for a read-only scan of one chain. Uses the shard's replica
+   * only if its head for the chain has reached minHeadIndex (default: the
+   * primary's current head) and the primary stores the same event_hash at the
+   * replica's head index; otherwise the primary. The hash check catches a
+   * replica that has not replayed a repair yet: a repair rewrites every hash
+   * from the first mismatch up to the head, so same head hash means same chain.
+   * Writes and repair must always use {@link Shard#jdbc()}.
+   */
+  public JdbcTemplate readerFor(String projectId, String artifactId, Long minHeadIndex) {
+    Shard shard = forChain(projectId, artifactId);
+    if (shard.replicaJdbc() == null) return shard.jdbc();
+
+    try {
+      Head replica = head(shard.replicaJdbc(), projectId, artifactId);
+      if (replica != null && (minHeadIndex == null || replica.index() >= minHeadIndex)) {
+        // One primary-key probe on the primary: its head when no minimum was given, else the replica's head index
+        Head primary = (minHeadIndex == null)
+            ? head(shard.jdbc(), projectId, artifactId)
+            : new Head(replica.index(), hashAt(shard.jdbc(), projectId, artifactId, replica.index()));
+        if (primary != null && primary.index() == replica.index() && replica.hash().equals(primary.hash())) {
+          replicaReads.incrementAndGet();
+          return shard.replicaJdbc();
+        }
+      }
+    } catch (DataAccessException unavailable) {
+      // Replica down: serve from the primary
+    }
+    primaryFallbacks.incrementAndGet();
+    return shard.jdbc();
+  }
+
+  /** Reads served by replicas vs. reads that fell back to the primary because of lag or errors. */
+  public Map<String, Long> readRoutingStats() {
+    return Map.of("replicaReads", replicaReads.get(), "primaryFallbacks", primaryFallbacks.get());
+  }
+
+  public List<Shard> all() {
+    return shards;
+  }
+
+  public int totalPoolSize() {
+    return shards.stream().mapToInt(Shard::maxPoolSize).sum();
+  }
+
+  private static Head head(JdbcTemplate jdbc, String projectId, String artifactId) {
+    return jdbc.query("""
+        SELECT chain_index, event_hash
+        FROM evidence_events
+        WHERE project_id=? AND artifact_id=?
+        ORDER BY chain_index DESC
+        LIMIT 1
+        """,
+        ps -> { ps.setString(1, projectId); ps.setString(2, artifactId); },
+        rs -> rs.next() ? new Head(rs.getLong(1), rs.getString(2)) : null
+    );
+  }
+
+  private static String hashAt(JdbcTemplate jdbc, String projectId, String artifactId, long chainIndex) {
+    return jdbc.query(
+        "SELECT event_hash FROM evidence_events WHERE project_id=? AND artifact_id=? AND chain_index=?",
+        ps -> { ps.setString(1, projectId); ps.setString(2, artifactId); ps.setLong(3, chainIndex); },
+        rs -> rs.next() ? rs.getString(1) : null
+    );
+  }
+
+  private record Head(long index, String hash) {}
+
+  private static long stableHash(String key) {
+    try {
+      byte[] dig = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+      return ByteBuffer.wrap(dig, 0, 8).getLong();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /** Lamping & Veach, "A Fast, Minimal Memory, Consistent Hash Algorithm". */
+  static int jumpHash(long key, int buckets) {
+    long b = -1;
+    long j = 0;
+    while (j < buckets) {
+      b = j;
+      key = key * 2862933555777941757L + 1;
+      j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+    }
+    return (int) b;
+  }
+}
@@ -0,0 +1,64 @@
+package com.proofpulse.ledger.stats;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/stats")
+public class StatsController {
+
+  private final RollupService rollups;
+
+  public StatsController(RollupService rollups) {
+    this.rollups = rollups;
+  }
+
+  /**
+   * Event counts from the hourly rollups. groupBy is a comma list of
+   * artifactId, type, source, hour; from/to are ISO instants (to exclusive),
+   * widened to whole hours: every hour bucket overlapping [from, to) is counted.
+   */
+  @GetMapping
+  public ResponseEntity<?> stats(
+      @RequestParam String projectId,
+      @RequestParam(required = false) String artifactId,
+      @RequestParam(required = false) String type,
+      @RequestParam(required = false) String source,
+      @RequestParam(required = false) String from,
+      @RequestParam(required = false) String to,
+      @RequestParam(defaultValue = "type,hour") String groupBy
+  ) {
+    try {
+      List<String> dims = groupBy.isBlank()
+          ? List.of()
+          : Arrays.stream(groupBy.split(",")).map(String::trim).toList();
+      return ResponseEntity.ok(rollups.query(
+          projectId, artifactId, type, source,
+          from == null ? null : Instant.parse(from),
+          to == null ? null : Instant.parse(to),
+          dims
+      ));
+    } catch (IllegalArgumentException | DateTimeParseException ex) {
+      return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(ex.getMessage())));
+    }
+  }
+
+  /** Recomputes a project's rollups from raw and sealed events. */
+  @PostMapping("/rebuild")
+  public ResponseEntity<?> rebuild(@RequestParam String projectId) {
+    try {
+      return ResponseEntity.ok(rollups.rebuild(projectId));
+    } catch (Exception ex) {
+      return ResponseEntity.status(500).body(Map.of(
+          "error", "Rollup rebuild failed",
+          "message", String.valueOf(ex.getMessage())
+      ));
+    }
+  }
+}
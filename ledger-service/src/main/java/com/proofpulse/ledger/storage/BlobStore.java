@@ -4,4 +4,8 @@ public interface BlobStore {
   void put(String key, byte[] data) throws Exception;
   byte[] get(String key) throws Exception;
   boolean exists(String key);
+
+  /** Stores an opaque object under key as-is (no ".json" suffix), e.g. "segments/ab12/0-9999.jsonl.gz". */
+  void putObject(String key, byte[] data, String contentType) throws Exception;
+  byte[] getObject(String key) throws Exception;
 }
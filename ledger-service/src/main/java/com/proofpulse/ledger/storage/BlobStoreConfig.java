@@ -6,12 +6,16 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class BlobStoreConfig {
 
+  /**
+   * Only the selected backend is instantiated: S3 when PP_S3_BUCKET is set, local disk otherwise.
+   * (Both used to be components, so every boot built an S3 client even when it was never used.)
+   */
   @Bean
-  public BlobStore blobStore(LocalBlobStore local, S3BlobStore s3) {
+  public BlobStore blobStore() {
     String bucket = System.getenv("PP_S3_BUCKET");
     if (bucket != null && !bucket.isBlank()) {
-      return s3;
+      return new S3BlobStore();
     }
-    return local;
+    return new LocalBlobStore();
   }
 }
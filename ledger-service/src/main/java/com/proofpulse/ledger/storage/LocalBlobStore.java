@@ -1,21 +1,16 @@
 package com.proofpulse.ledger.storage;
 
-import org.springframework.stereotype.Component;
-
 import java.nio.file.Files;
 import java.nio.file.Path;
 
-@Component
+/** Created by BlobStoreConfig; the directory is created on first write, not at startup. */
 public class LocalBlobStore implements BlobStore {
 
   private final Path root = Path.of("attestation-bundles");
 
-  public LocalBlobStore() throws Exception {
-    Files.createDirectories(root);
-  }
-
   @Override
   public void put(String key, byte[] data) throws Exception {
+    Files.createDirectories(root);
     Files.write(root.resolve(key + ".json"), data);
   }
 
@@ -28,4 +23,22 @@ public class LocalBlobStore implements BlobStore {
   public boolean exists(String key) {
     return Files.exists(root.resolve(key + ".json"));
   }
+
+  @Override
+  public void putObject(String key, byte[] data, String contentType) throws Exception {
+    Path file = objectPath(key);
+    Files.createDirectories(file.getParent());
+    Files.write(file, data);
+  }
+
+  @Override
+  public byte[] getObject(String key) throws Exception {
+    return Files.readAllBytes(objectPath(key));
+  }
+
+  private Path objectPath(String key) {
+    Path file = root.resolve(key).normalize();
+    if (!file.startsWith(root)) throw new IllegalArgumentException("Invalid object key: " + key);
+    return file;
+  }
 }
@@ -0,0 +1,106 @@
+package com.proofpulse.ledger.storage;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.proofpulse.ledger.crypto.EventCanonical;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Moves large payloads out of evidence_events into the BlobStore, keyed by the
+ * SHA-256 of their canonical JSON.
+ *
+ * The row stores a reference instead of the payload:
+ *   {"$blobRef": {"sha256": "...", "size": 123456, "key": "payloads/<sha256>.json"}}
+ * and the event hash is computed over that reference like over any payload,
+ * so the chain commits to the body's hash. {@link #resolve} checks a fetched
+ * body against it, so a swapped blob is detected on read.
+ */
+@Component
+public class PayloadOffloader {
+
+  public static final String REF_FIELD = "$blobRef";
+
+  private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+
+  /** Canonical payloads larger than this (bytes) are offloaded; 0 disables offloading. */
+  private final int thresholdBytes;
+
+  private final BlobStore blobs;
+
+  @Autowired
+  public PayloadOffloader(BlobStore blobs) {
+    this(blobs, Integer.parseInt(System.getenv().getOrDefault("PP_PAYLOAD_OFFLOAD_BYTES", "0")));
+  }
+
+  /** Fixed threshold instead of PP_PAYLOAD_OFFLOAD_BYTES (tests). */
+  PayloadOffloader(BlobStore blobs, int thresholdBytes) {
+    this.blobs = blobs;
+    this.thresholdBytes = thresholdBytes;
+  }
+
+  /** Uploads the payload and returns its reference, or null when it stays inline. */
+  public JsonNode offload(String canonicalPayload) throws Exception {
+    JsonNode ref = reference(canonicalPayload);
+    if (ref == null) return null;
+
+    // Content-addressed: re-uploading the same body (retries, duplicates) is harmless
+    blobs.putObject(ref.get(REF_FIELD).get("key").asText(), canonicalPayload.getBytes(StandardCharsets.UTF_8), "application/json");
+    return ref;
+  }
+
+  /** The reference {@link #offload} would store for this payload, without uploading; null when it stays inline. */
+  public JsonNode reference(String canonicalPayload) throws Exception {
+    if (thresholdBytes <= 0) return null;
+    byte[] body = canonicalPayload.getBytes(StandardCharsets.UTF_8);
+    if (body.length <= thresholdBytes) return null;
+
+    String sha256 = sha256Hex(body);
+    String key = "payloads/" + sha256 + ".json";
+
+    ObjectNode ref = EventCanonical.mapper().createObjectNode();
+    ObjectNode inner = ref.putObject(REF_FIELD);
+    inner.put("sha256", sha256);
+    inner.put("size", body.length);
+    inner.put("key", key);
+    return ref;
+  }
+
+  public static boolean isReference(JsonNode payload) {
+    return payload != null && payload.isObject() && payload.size() == 1 && payload.has(REF_FIELD);
+  }
+
+  /** Client payloads may not use the reference field; only {@link #offload} writes it. */
+  public static boolean usesReservedField(JsonNode payload) {
+    return payload != null && payload.isObject() && payload.has(REF_FIELD);
+  }
+
+  /** Returns the full payload: inline payloads as-is, references fetched and checked against their hash. */
+  public JsonNode resolve(JsonNode payload) throws Exception {
+    if (!isReference(payload)) return payload;
+
+    JsonNode ref = payload.get(REF_FIELD);
+    String expected = ref.path("sha256").asText();
+    String key = ref.path("key").asText();
+    // Only content-addressed payload keys: a reference may never point at other blobs
+    if (!SHA256_HEX.matcher(expected).matches() || !key.equals("payloads/" + expected + ".json")) {
+      throw new IllegalStateException("Invalid offloaded payload reference: " + key);
+    }
+
+    byte[] body = blobs.getObject(key);
+    String actual = sha256Hex(body);
+    if (!actual.equals(expected)) {
+      throw new IllegalStateException("Offloaded payload hash mismatch for " + key);
+    }
+    return EventCanonical.mapper().readTree(body);
+  }
+
+  private static String sha256Hex(byte[] data) throws Exception {
+    return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+  }
+}
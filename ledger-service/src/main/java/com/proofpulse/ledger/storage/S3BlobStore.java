@@ -1,6 +1,5 @@
 package com.proofpulse.ledger.storage;
 
-import org.springframework.stereotype.Component;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.core.ResponseBytes;
 import software.amazon.awssdk.core.sync.RequestBody;
@@ -14,19 +13,46 @@ import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequ
 
 import java.net.URI;
 import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
 
-@Component
+/**
+ * Created by BlobStoreConfig when PP_S3_BUCKET is set. The S3 client and
+ * presigner (and the credential chain behind them) are built on first use
+ * instead of during startup.
+ */
 public class S3BlobStore implements BlobStore {
 
   private final String bucket = System.getenv("PP_S3_BUCKET");
   private final String prefix = System.getenv().getOrDefault("PP_S3_PREFIX", "attestations/");
+  private final String objectPrefix = System.getenv().getOrDefault("PP_S3_OBJECT_PREFIX", "ledger/");
   private final Duration presignTtl =
       Duration.ofMinutes(Long.parseLong(System.getenv().getOrDefault("PP_S3_PRESIGN_MINUTES", "15")));
 
-  private final S3Client s3;
-  private final S3Presigner presigner;
+  private volatile S3Client s3;
+  private volatile S3Presigner presigner;
+  // Not synchronized: building resolves credentials (file/network I/O), which would pin a virtual thread
+  private final ReentrantLock buildLock = new ReentrantLock();
 
-  public S3BlobStore() {
+  private S3Client s3() {
+    if (s3 == null) build();
+    return s3;
+  }
+
+  private S3Presigner presigner() {
+    if (presigner == null) build();
+    return presigner;
+  }
+
+  private void build() {
+    buildLock.lock();
+    try {
+      if (s3 == null) buildClients();
+    } finally {
+      buildLock.unlock();
+    }
+  }
+
+  private void buildClients() {
     String regionStr = System.getenv().getOrDefault(
         "AWS_REGION",
         System.getenv().getOrDefault("AWS_DEFAULT_REGION", "us-east-1")
@@ -49,8 +75,8 @@ public class S3BlobStore implements BlobStore {
       pb = pb.endpointOverride(uri);
     }
 
-    this.s3 = s3b.build();
     this.presigner = pb.build();
+    this.s3 = s3b.build();
   }
 
   @Override
@@ -58,7 +84,7 @@ public class S3BlobStore implements BlobStore {
     ensureConfigured();
     String objectKey = prefix + key + ".json";
 
-    s3.putObject(
+    s3().putObject(
         PutObjectRequest.builder()
             .bucket(bucket)
             .key(objectKey)
@@ -73,7 +99,7 @@ public class S3BlobStore implements BlobStore {
     ensureConfigured();
     String objectKey = prefix + key + ".json";
 
-    ResponseBytes<GetObjectResponse> bytes = s3.getObjectAsBytes(
+    ResponseBytes<GetObjectResponse> bytes = s3().getObjectAsBytes(
         GetObjectRequest.builder()
             .bucket(bucket)
             .key(objectKey)
@@ -87,13 +113,37 @@ public class S3BlobStore implements BlobStore {
     if (bucket == null || bucket.isBlank()) return false;
     String objectKey = prefix + key + ".json";
     try {
-      s3.headObject(HeadObjectRequest.builder().bucket(bucket).key(objectKey).build());
+      s3().headObject(HeadObjectRequest.builder().bucket(bucket).key(objectKey).build());
       return true;
     } catch (S3Exception e) {
       return false;
     }
   }
 
+  @Override
+  public void putObject(String key, byte[] data, String contentType) {
+    ensureConfigured();
+    s3().putObject(
+        PutObjectRequest.builder()
+            .bucket(bucket)
+            .key(objectPrefix + key)
+            .contentType(contentType)
+            .build(),
+        RequestBody.fromBytes(data)
+    );
+  }
+
+  @Override
+  public byte[] getObject(String key) {
+    ensureConfigured();
+    return s3().getObjectAsBytes(
+        GetObjectRequest.builder()
+            .bucket(bucket)
+            .key(objectPrefix + key)
+            .build()
+    ).asByteArray();
+  }
+
   public String presignedGetUrl(String key) {
     ensureConfigured();
     String objectKey = prefix + key + ".json";
@@ -103,7 +153,7 @@ public class S3BlobStore implements BlobStore {
         .key(objectKey)
         .build();
 
-    PresignedGetObjectRequest presigned = presigner.presignGetObject(
+    PresignedGetObjectRequest presigned = presigner().presignGetObject(
         GetObjectPresignRequest.builder()
             .signatureDuration(presignTtl)
             .getObjectRequest(req)
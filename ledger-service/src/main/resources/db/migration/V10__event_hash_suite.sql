@@ -0,0 +1,5 @@
+-- Hash suite that produced event_hash (see HashSuite). Existing rows are the
+-- original sha256 string join, id 0. A constant default is metadata-only.
+
+ALTER TABLE evidence_events
+  ADD COLUMN IF NOT EXISTS hash_alg SMALLINT NOT NULL DEFAULT 0;
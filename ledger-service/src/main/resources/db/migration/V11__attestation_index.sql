@@ -0,0 +1,17 @@
+-- Latest attestation per chain, kept current by AttestationRefresher.
+-- bundle is the signed bundle JSON (also in the blob store under bundle_id),
+-- so GET /attestations/latest is one primary key read.
+
+CREATE TABLE IF NOT EXISTS attestation_index (
+  project_id VARCHAR(64) NOT NULL,
+  artifact_id VARCHAR(128) NOT NULL,
+
+  head_chain_index BIGINT NOT NULL,
+  head_hash VARCHAR(64) NOT NULL,
+
+  bundle_id VARCHAR(64) NOT NULL,
+  bundle TEXT NOT NULL,
+  issued_at TIMESTAMPTZ NOT NULL,
+
+  PRIMARY KEY (project_id, artifact_id)
+);
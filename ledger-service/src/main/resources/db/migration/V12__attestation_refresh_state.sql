@@ -0,0 +1,6 @@
+-- Last failed refresh of an indexed attestation (cleared by the next successful one),
+-- so a chain that can no longer be attested shows up in GET /attestations/latest.
+
+ALTER TABLE attestation_index
+  ADD COLUMN IF NOT EXISTS refresh_error TEXT,
+  ADD COLUMN IF NOT EXISTS refresh_failed_at TIMESTAMPTZ;
@@ -0,0 +1,29 @@
+-- Asynchronous chain verification jobs.
+-- next_index / prev_hash are the resume checkpoint; owner + updated_at act as a lease.
+
+CREATE TABLE IF NOT EXISTS chain_verify_jobs (
+  job_id UUID PRIMARY KEY,
+  project_id VARCHAR(64) NOT NULL,
+  artifact_id VARCHAR(128) NOT NULL,
+
+  status VARCHAR(16) NOT NULL,            -- QUEUED | RUNNING | DONE | FAILED
+  owner VARCHAR(64),
+
+  next_index BIGINT NOT NULL DEFAULT 0,
+  prev_hash VARCHAR(64),
+  total_events BIGINT,
+
+  run_start_index BIGINT NOT NULL DEFAULT 0,
+  run_started_at TIMESTAMPTZ,
+
+  report JSONB,
+  error TEXT,
+
+  created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+  updated_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+  finished_at TIMESTAMPTZ
+);
+
+CREATE INDEX IF NOT EXISTS idx_chain_verify_jobs_active
+  ON chain_verify_jobs(updated_at)
+  WHERE status IN ('QUEUED', 'RUNNING');
@@ -0,0 +1,22 @@
+-- Per-chain state of the background scrubber.
+-- verified_next_index / verified_hash: incremental checkpoint (everything below was verified).
+
+CREATE TABLE IF NOT EXISTS chain_scrub_state (
+  project_id VARCHAR(64) NOT NULL,
+  artifact_id VARCHAR(128) NOT NULL,
+
+  verified_next_index BIGINT NOT NULL DEFAULT 0,
+  verified_hash VARCHAR(64),
+
+  valid BOOLEAN NOT NULL DEFAULT TRUE,
+  first_mismatch_index BIGINT,
+  mismatch_reason TEXT,
+
+  last_verified_at TIMESTAMPTZ,
+  last_full_scan_at TIMESTAMPTZ,
+
+  PRIMARY KEY (project_id, artifact_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_chain_scrub_state_last_verified
+  ON chain_scrub_state(last_verified_at);
@@ -0,0 +1,66 @@
+-- Hash-partition evidence_events by chain (project_id, artifact_id).
+--
+-- Every ingest and verify query filters on both columns, so each touches exactly
+-- one partition and only that partition's chain-position index. The primary key
+-- becomes the chain position; global eventId uniqueness moves to the narrow
+-- evidence_event_ids table (a partitioned table cannot have a unique index on
+-- event_id alone). The inserted_at indexes were never used and are not recreated.
+--
+-- Existing rows are copied by a single INSERT ... SELECT inside this migration's
+-- transaction; on very large installations schedule it in a maintenance window.
+
+DROP INDEX IF EXISTS idx_evidence_events_project_inserted;
+DROP INDEX IF EXISTS idx_evidence_events_artifact_inserted;
+DROP INDEX IF EXISTS ux_evidence_chain_position;
+
+ALTER TABLE evidence_events RENAME TO evidence_events_legacy;
+ALTER INDEX IF EXISTS evidence_events_pkey RENAME TO evidence_events_legacy_pkey;
+
+CREATE TABLE evidence_events (
+  event_id UUID NOT NULL,
+  schema_version INT NOT NULL,
+  project_id VARCHAR(64) NOT NULL,
+  artifact_id VARCHAR(128) NOT NULL,
+
+  source TEXT NOT NULL,
+  ts TIMESTAMPTZ NOT NULL,
+  type TEXT NOT NULL,
+  payload JSONB NOT NULL,
+
+  inserted_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+
+  chain_index BIGINT NOT NULL,
+  prev_hash VARCHAR(64),
+  event_hash VARCHAR(64),
+
+  CONSTRAINT pk_evidence_chain_position PRIMARY KEY (project_id, artifact_id, chain_index)
+) PARTITION BY HASH (project_id, artifact_id);
+
+DO $$
+BEGIN
+  FOR i IN 0..15 LOOP
+    EXECUTE format(
+      'CREATE TABLE evidence_events_p%s PARTITION OF evidence_events FOR VALUES WITH (MODULUS 16, REMAINDER %s)',
+      lpad(i::text, 2, '0'), i
+    );
+  END LOOP;
+END $$;
+
+CREATE TABLE IF NOT EXISTS evidence_event_ids (
+  event_id UUID PRIMARY KEY,
+  project_id VARCHAR(64) NOT NULL,
+  artifact_id VARCHAR(128) NOT NULL,
+  chain_index BIGINT NOT NULL
+);
+
+INSERT INTO evidence_events
+  (event_id, schema_version, project_id, artifact_id, source, ts, type, payload, inserted_at, chain_index, prev_hash, event_hash)
+SELECT
+  event_id, schema_version, project_id, artifact_id, source, ts, type, payload, inserted_at, chain_index, prev_hash, event_hash
+FROM evidence_events_legacy;
+
+INSERT INTO evidence_event_ids (event_id, project_id, artifact_id, chain_index)
+SELECT event_id, project_id, artifact_id, chain_index
+FROM evidence_events_legacy;
+
+DROP TABLE evidence_events_legacy;
@@ -0,0 +1,22 @@
+-- Manifest of chain segments sealed into cold storage (BlobStore).
+-- The rows [first_index, last_index] live only in the compressed blob; the
+-- boundary hashes let incremental verifies link across the segment without reading it.
+
+CREATE TABLE IF NOT EXISTS chain_segments (
+  project_id VARCHAR(64) NOT NULL,
+  artifact_id VARCHAR(128) NOT NULL,
+  first_index BIGINT NOT NULL,
+  last_index BIGINT NOT NULL,
+
+  first_prev_hash VARCHAR(64),
+  last_event_hash VARCHAR(64) NOT NULL,
+
+  event_count BIGINT NOT NULL,
+  blob_key TEXT NOT NULL,
+  content_sha256 VARCHAR(64) NOT NULL,
+  byte_size BIGINT NOT NULL,
+
+  sealed_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+
+  PRIMARY KEY (project_id, artifact_id, first_index)
+);
@@ -0,0 +1,26 @@
+-- Hourly event counters per chain/type/source, maintained by the ingest transaction.
+-- Lives on the same shard as the chain it counts. hour is the event ts truncated to the UTC hour.
+
+CREATE TABLE IF NOT EXISTS evidence_rollup_hourly (
+  project_id VARCHAR(64) NOT NULL,
+  artifact_id VARCHAR(128) NOT NULL,
+  type TEXT NOT NULL,
+  source TEXT NOT NULL,
+  hour TIMESTAMPTZ NOT NULL,
+  event_count BIGINT NOT NULL,
+
+  PRIMARY KEY (project_id, artifact_id, type, source, hour)
+);
+
+-- /stats filters by project and time range
+CREATE INDEX IF NOT EXISTS idx_rollup_project_hour
+  ON evidence_rollup_hourly(project_id, hour);
+
+-- Seed from existing hot rows (sealed segments are added by POST /stats/rebuild)
+INSERT INTO evidence_rollup_hourly (project_id, artifact_id, type, source, hour, event_count)
+SELECT project_id, artifact_id, type, source,
+       date_trunc('hour', ts AT TIME ZONE 'UTC') AT TIME ZONE 'UTC',
+       COUNT(*)
+FROM evidence_events
+GROUP BY 1, 2, 3, 4, 5
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,88 @@
+package com.proofpulse.ledger.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.proofpulse.ledger.chain.ChainRepaired;
+import com.proofpulse.ledger.crypto.EventCanonical;
+import com.proofpulse.ledger.crypto.HashSuite;
+import com.proofpulse.ledger.storage.PayloadOffloader;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DuplicateEventTest {
+
+  private static final UUID EVENT_ID = UUID.fromString("7d4f1c1e-2f8a-4b4e-9a57-0c3b8d8e6f01");
+  private static final Instant TS = Instant.parse("2024-05-01T12:00:00Z");
+
+  // Inline payloads only (PP_PAYLOAD_OFFLOAD_BYTES unset), so no store is touched
+  private final LedgerAppender appender =
+      new LedgerAppender(null, null, null, null, new PayloadOffloader(null));
+
+  @Test
+  void replayOfTheStoredEventIsTheSameEvent() throws Exception {
+    for (HashSuite suite : HashSuite.values()) {
+      RecentEventCache.Entry stored = stored(suite, "prev", payload("{\"a\":1,\"b\":[1,2]}"));
+
+      // Same content, different key order: canonicalization makes it the same event
+      assertTrue(appender.isSameEvent(stored, 1, EVENT_ID, "proj", "art", "ci", TS, "build",
+          payload("{\"b\":[1,2],\"a\":1}")), suite.label());
+    }
+  }
+
+  @Test
+  void reusedEventIdWithDifferentContentIsNotTheSameEvent() throws Exception {
+    RecentEventCache.Entry stored = stored(HashSuite.SHA256, "prev", payload("{\"a\":1}"));
+
+    assertFalse(appender.isSameEvent(stored, 1, EVENT_ID, "proj", "art", "ci", TS, "build", payload("{\"a\":2}")));
+    assertFalse(appender.isSameEvent(stored, 1, EVENT_ID, "proj", "art", "ci", TS, "deploy", payload("{\"a\":1}")));
+    assertFalse(appender.isSameEvent(stored, 1, EVENT_ID, "proj", "art", "ci", TS.plusSeconds(1), "build", payload("{\"a\":1}")));
+  }
+
+  @Test
+  void genesisRowsCompareWithoutAPreviousHash() throws Exception {
+    RecentEventCache.Entry stored = stored(HashSuite.SHA256_LEGACY, null, payload("{}"));
+    assertTrue(appender.isSameEvent(stored, 1, EVENT_ID, "proj", "art", "ci", TS, "build", payload("{}")));
+  }
+
+  @Test
+  void rememberedEventsAreFoundWithoutAShardLookup() {
+    // No router: a miss would throw, so a hit proves the lock-free path
+    RecentEventCache cache = new RecentEventCache(null);
+    RecentEventCache.Entry entry = new RecentEventCache.Entry("proj", "art", 3, "p", "e", 1);
+    cache.remember(EVENT_ID, entry);
+
+    assertSame(entry, cache.find(EVENT_ID));
+    assertSame(entry, cache.cached(EVENT_ID));
+    assertNull(cache.cached(UUID.randomUUID()));
+  }
+
+  @Test
+  void repairDropsTheRewrittenPositionsOfItsChain() {
+    RecentEventCache cache = new RecentEventCache(null);
+    UUID before = UUID.randomUUID();
+    UUID rewritten = UUID.randomUUID();
+    UUID otherChain = UUID.randomUUID();
+    cache.remember(before, new RecentEventCache.Entry("proj", "art", 2, "p", "e", 1));
+    cache.remember(rewritten, new RecentEventCache.Entry("proj", "art", 3, "p", "e", 1));
+    cache.remember(otherChain, new RecentEventCache.Entry("proj", "other", 3, "p", "e", 1));
+
+    cache.onRepaired(new ChainRepaired("proj", "art", 3, "p"));
+
+    assertNotNull(cache.cached(before));
+    assertNull(cache.cached(rewritten));
+    assertNotNull(cache.cached(otherChain));
+  }
+
+  private static RecentEventCache.Entry stored(HashSuite suite, String prevHash, JsonNode payload) {
+    String prev = prevHash == null ? null : HashSuite.SHA256.eventHash(null, prevHash);
+    String canonical = EventCanonical.canonicalEventJson(1, EVENT_ID, "proj", "art", "ci", TS, "build", payload);
+    return new RecentEventCache.Entry("proj", "art", prev == null ? 0 : 1, prev, suite.eventHash(prev, canonical), suite.id());
+  }
+
+  private static JsonNode payload(String json) throws Exception {
+    return EventCanonical.mapper().readTree(json);
+  }
+}
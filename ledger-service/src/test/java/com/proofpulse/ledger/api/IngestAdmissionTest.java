@@ -0,0 +1,81 @@
+package com.proofpulse.ledger.api;
+
+import com.proofpulse.ledger.shard.Shard;
+import com.proofpulse.ledger.shard.ShardRouter;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IngestAdmissionTest {
+
+  // Pool of 10, 2 reserved: global limit 8; per chain 4 and per project 16 by default
+  private final IngestAdmission admission = new IngestAdmission(router(10), new SimpleMeterRegistry());
+
+  @Test
+  void rejectsTheChainOverItsLimitAndAdmitsAgainOnceASlotIsFreed() {
+    List<IngestAdmission.Admission> held = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      IngestAdmission.Admission a = admission.tryAdmit("proj", "art");
+      assertTrue(a.admitted());
+      held.add(a);
+    }
+
+    IngestAdmission.Admission rejected = admission.tryAdmit("proj", "art");
+    assertFalse(rejected.admitted());
+    assertEquals("chain", rejected.rejectedScope());
+    assertEquals(4, rejected.limit());
+    assertTrue(rejected.retryAfterSeconds() >= 1);
+    rejected.close();
+
+    // Other chains of the project are not affected
+    IngestAdmission.Admission other = admission.tryAdmit("proj", "other");
+    assertTrue(other.admitted());
+    other.close();
+
+    held.remove(0).close();
+    IngestAdmission.Admission again = admission.tryAdmit("proj", "art");
+    assertTrue(again.admitted());
+    again.close();
+    held.forEach(IngestAdmission.Admission::close);
+
+    assertEquals(0, admission.snapshot().get("inFlight"));
+  }
+
+  @Test
+  void rejectsOverTheGlobalLimitDerivedFromThePoolSize() {
+    List<IngestAdmission.Admission> held = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      IngestAdmission.Admission a = admission.tryAdmit("proj-" + i, "art");
+      assertTrue(a.admitted());
+      held.add(a);
+    }
+
+    IngestAdmission.Admission rejected = admission.tryAdmit("proj-x", "art");
+    assertEquals("global", rejected.rejectedScope());
+    assertEquals(8, rejected.limit());
+    assertEquals(8, admission.snapshot().get("inFlight"));
+
+    held.forEach(IngestAdmission.Admission::close);
+    assertEquals(0, admission.snapshot().get("inFlight"));
+  }
+
+  @Test
+  void retryAfterScalesWithOccupancyAndIsClamped() {
+    // Initial average hold is 50ms
+    assertEquals(1, admission.retryAfterSeconds(4, 4));
+    assertEquals(1, admission.retryAfterSeconds(0, 4));
+    assertEquals(5, admission.retryAfterSeconds(100, 1));
+    assertEquals(30, admission.retryAfterSeconds(100_000, 1));
+  }
+
+  private static ShardRouter router(int poolSize) {
+    HikariDataSource pool = new HikariDataSource();
+    pool.setMaximumPoolSize(poolSize);
+    return new ShardRouter(List.of(new Shard(0, pool, null, null, null)), ShardRouter.KeyMode.PROJECT);
+  }
+}
@@ -0,0 +1,166 @@
+package com.proofpulse.ledger.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.proofpulse.ledger.chain.ChainAppended;
+import com.proofpulse.ledger.chain.ChainArchive;
+import com.proofpulse.ledger.chain.ChainVerificationService;
+import com.proofpulse.ledger.chain.InMemoryChainJdbc;
+import com.proofpulse.ledger.crypto.EventCanonical;
+import com.proofpulse.ledger.crypto.HashSuite;
+import com.proofpulse.ledger.shard.Shard;
+import com.proofpulse.ledger.shard.ShardRouter;
+import com.proofpulse.ledger.stats.RollupService;
+import com.proofpulse.ledger.storage.InMemoryBlobStore;
+import com.proofpulse.ledger.storage.PayloadOffloader;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.proofpulse.ledger.chain.InMemoryChainJdbc.ARTIFACT;
+import static com.proofpulse.ledger.chain.InMemoryChainJdbc.PROJECT;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerAppenderTest {
+
+  private static final Instant TS = Instant.parse("2024-05-01T12:34:56Z");
+
+  private final InMemoryChainJdbc jdbc = new InMemoryChainJdbc();
+  private final ShardRouter shards = InMemoryChainJdbc.singleShard(jdbc);
+  private final RecentEventCache recent = new RecentEventCache(shards);
+  private final List<Object> published = new ArrayList<>();
+  private final LedgerAppender appender = new LedgerAppender(
+      shards, recent, published::add, new RollupService(shards, null), new PayloadOffloader(new InMemoryBlobStore()));
+
+  @Test
+  void appendsLinkClaimEventIdsAndPublishAfterCommit() throws Exception {
+    UUID first = UUID.randomUUID();
+    UUID second = UUID.randomUUID();
+
+    RecentEventCache.Entry a = append(first, "{\"n\":1}", null);
+    RecentEventCache.Entry b = append(second, "{\"n\":2}", null);
+
+    assertEquals(0, a.chainIndex());
+    assertNull(a.prevHash());
+    assertEquals(1, b.chainIndex());
+    assertEquals(a.eventHash(), b.prevHash());
+    assertEquals(0L, jdbc.claimedEventIds.get(first));
+    assertEquals(1L, jdbc.claimedEventIds.get(second));
+
+    // Remembered and announced only once committed
+    assertSame(b, recent.find(second));
+    assertEquals(new ChainAppended(PROJECT, ARTIFACT, 1, b.eventHash(), second, "build"), published.get(1));
+    // The feed is notified after commit (FeedNotifier), never from the ingest transaction
+    assertTrue(jdbc.notifications.isEmpty());
+    assertEquals(2L, jdbc.rollups.get(List.of("build", "ci", Instant.parse("2024-05-01T12:00:00Z"))));
+  }
+
+  @Test
+  void eventIdClaimedConcurrentlyWritesNothing() throws Exception {
+    UUID eventId = UUID.randomUUID();
+    jdbc.claimedEventIds.put(eventId, 0L);
+
+    assertNull(append(eventId, "{}", null));
+    assertNull(jdbc.row(0));
+    assertTrue(published.isEmpty());
+  }
+
+  @Test
+  void genesisSuiteIsKeptByTheWholeChain() throws Exception {
+    RecentEventCache.Entry genesis = append(UUID.randomUUID(), "{\"n\":1}", HashSuite.SHA512_256);
+    // A later event asking for another suite does not switch the chain
+    RecentEventCache.Entry next = append(UUID.randomUUID(), "{\"n\":2}", HashSuite.SHA256_LEGACY);
+
+    assertEquals(HashSuite.SHA512_256.id(), genesis.hashAlg());
+    assertEquals(HashSuite.SHA512_256.id(), next.hashAlg());
+    assertEquals(HashSuite.SHA512_256.id(), jdbc.row(1).hashAlg());
+
+    ChainVerificationService verifier = new ChainVerificationService(shards, new ChainArchive(new InMemoryBlobStore()), e -> {});
+    assertEquals(true, verifier.verify(PROJECT, ARTIFACT).get("valid"));
+  }
+
+  @Test
+  void eventIdsAreClaimedOnTheirOwnShard() throws Exception {
+    ShardedChain sharded = new ShardedChain();
+    UUID eventId = sharded.eventIdClaimedElsewhere();
+
+    assertEquals(0, sharded.append(eventId).chainIndex());
+
+    assertEquals(0L, sharded.claims.claimedEventIds.get(eventId));
+    assertFalse(sharded.chain.claimedEventIds.containsKey(eventId));
+    // A retry meets the claim, which its chain row backs
+    assertNull(sharded.append(eventId));
+    assertNull(sharded.chain.row(1));
+  }
+
+  @Test
+  void aClaimLeftPastTheHeadIsTakenOver() throws Exception {
+    ShardedChain sharded = new ShardedChain();
+    UUID eventId = sharded.eventIdClaimedElsewhere();
+    // Claimed by an append that crashed before its chain transaction committed
+    sharded.claims.claimedEventIds.put(eventId, 5L);
+
+    assertEquals(0, sharded.append(eventId).chainIndex());
+    assertEquals(0L, sharded.claims.claimedEventIds.get(eventId));
+  }
+
+  @Test
+  void aRolledBackAppendReleasesItsClaim() throws Exception {
+    ShardedChain sharded = new ShardedChain();
+    UUID eventId = sharded.eventIdClaimedElsewhere();
+    sharded.chain.failRollups = true;
+
+    assertThrows(IllegalStateException.class, () -> sharded.append(eventId));
+    assertFalse(sharded.claims.claimedEventIds.containsKey(eventId));
+  }
+
+  private RecentEventCache.Entry append(UUID eventId, String payload, HashSuite genesisSuite) throws Exception {
+    JsonNode node = EventCanonical.mapper().readTree(payload);
+    return appender.append(1, eventId, PROJECT, ARTIFACT, "ci", TS, "build", node, genesisSuite);
+  }
+
+  /** The chain on one shard, with eventIds claimed on another. */
+  private static final class ShardedChain {
+    final FailingRollups chain = new FailingRollups();
+    final InMemoryChainJdbc claims = new InMemoryChainJdbc();
+    final ShardRouter router;
+    final LedgerAppender appender;
+
+    ShardedChain() {
+      ShardRouter probe = new ShardRouter(List.of(
+          new Shard(0, null, chain, InMemoryChainJdbc.immediateTransactions(), null),
+          new Shard(1, null, claims, InMemoryChainJdbc.immediateTransactions(), null)
+      ), ShardRouter.KeyMode.CHAIN);
+      // Keep the chain on the `chain` shard whichever way PROJECT|ARTIFACT hashes
+      router = (probe.forChain(PROJECT, ARTIFACT).jdbc() == chain) ? probe : new ShardRouter(List.of(
+          new Shard(0, null, claims, InMemoryChainJdbc.immediateTransactions(), null),
+          new Shard(1, null, chain, InMemoryChainJdbc.immediateTransactions(), null)
+      ), ShardRouter.KeyMode.CHAIN);
+      appender = new LedgerAppender(router, new RecentEventCache(router), e -> {},
+          new RollupService(router, null), new PayloadOffloader(new InMemoryBlobStore()));
+    }
+
+    UUID eventIdClaimedElsewhere() {
+      while (true) {
+        UUID eventId = UUID.randomUUID();
+        if (router.forEventId(eventId).jdbc() == claims) return eventId;
+      }
+    }
+
+    RecentEventCache.Entry append(UUID eventId) throws Exception {
+      return appender.append(1, eventId, PROJECT, ARTIFACT, "ci", TS, "build", EventCanonical.mapper().readTree("{}"), null);
+    }
+  }
+
+  private static final class FailingRollups extends InMemoryChainJdbc {
+    boolean failRollups;
+
+    @Override
+    public int update(String sql, Object... args) {
+      if (failRollups && sql.contains("evidence_rollup_hourly")) throw new IllegalStateException("rollup failed");
+      return super.update(sql, args);
+    }
+  }
+}
@@ -0,0 +1,177 @@
+package com.proofpulse.ledger.attest;
+
+import com.proofpulse.ledger.chain.ChainArchive;
+import com.proofpulse.ledger.chain.ChainRepaired;
+import com.proofpulse.ledger.chain.ChainVerificationService;
+import com.proofpulse.ledger.chain.InMemoryChainJdbc;
+import com.proofpulse.ledger.crypto.HashSuite;
+import com.proofpulse.ledger.storage.InMemoryBlobStore;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.proofpulse.ledger.chain.InMemoryChainJdbc.ARTIFACT;
+import static com.proofpulse.ledger.chain.InMemoryChainJdbc.PROJECT;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AttestationRefresherTest {
+
+  private final InMemoryChainJdbc jdbc = new InMemoryChainJdbc();
+  private final RecordingIndex index = new RecordingIndex();
+  private final RecordingAttestations attest = new RecordingAttestations();
+  private final AttestationRefresher refresher = new AttestationRefresher(
+      new ChainVerificationService(
+          InMemoryChainJdbc.singleShard(jdbc),
+          new ChainArchive(new InMemoryBlobStore()),
+          e -> {}),
+      attest, index);
+
+  @Test
+  void movedHeadIsReattested() throws Exception {
+    jdbc.insert(InMemoryChainJdbc.chain(5, HashSuite.SHA256));
+    index.entry = indexedAt(2, jdbc.row(2).eventHash());
+
+    refresher.refresh(PROJECT, ARTIFACT);
+
+    assertEquals(1, attest.issued.size());
+    assertEquals(4L, attest.issued.get(0).get("headChainIndex"));
+    assertEquals(jdbc.row(4).eventHash(), attest.issued.get(0).get("headHash"));
+    assertTrue(index.failures.isEmpty());
+  }
+
+  @Test
+  void onlyTheSuffixAfterTheSignedHeadIsVerified() throws Exception {
+    jdbc.insert(InMemoryChainJdbc.chain(5, HashSuite.SHA256));
+    index.entry = indexedAt(2, jdbc.row(2).eventHash());
+    // Below the signed head: a full verification would fail here
+    jdbc.insert(List.of(InMemoryChainJdbc.withHash(jdbc.row(1), jdbc.row(0).eventHash(), "ff".repeat(32))));
+
+    refresher.refresh(PROJECT, ARTIFACT);
+
+    assertEquals(1, attest.issued.size());
+    assertEquals(4L, attest.issued.get(0).get("headChainIndex"));
+  }
+
+  @Test
+  void unchangedHeadIsNotReissued() throws Exception {
+    jdbc.insert(InMemoryChainJdbc.chain(5, HashSuite.SHA256));
+    index.entry = indexedAt(4, jdbc.row(4).eventHash());
+
+    refresher.refresh(PROJECT, ARTIFACT);
+
+    assertTrue(attest.issued.isEmpty());
+    assertTrue(index.failures.isEmpty());
+  }
+
+  @Test
+  void headRewrittenBelowTheIndexFallsBackToTheWholeChain() throws Exception {
+    jdbc.insert(InMemoryChainJdbc.chain(5, HashSuite.SHA256));
+    // The signed head hash no longer matches the row at that index (e.g. after a repair)
+    index.entry = indexedAt(2, "00".repeat(32));
+
+    refresher.refresh(PROJECT, ARTIFACT);
+
+    assertEquals(1, attest.issued.size());
+    assertEquals(4L, attest.issued.get(0).get("headChainIndex"));
+    assertEquals(jdbc.row(4).eventHash(), attest.issued.get(0).get("headHash"));
+  }
+
+  @Test
+  void headRewrittenInPlaceIsReattested() throws Exception {
+    jdbc.insert(InMemoryChainJdbc.chain(5, HashSuite.SHA256));
+    // Repair rewrote the signed head itself and nothing was appended after it
+    index.entry = indexedAt(4, "00".repeat(32));
+
+    refresher.refresh(PROJECT, ARTIFACT);
+
+    assertEquals(1, attest.issued.size());
+    assertEquals(4L, attest.issued.get(0).get("headChainIndex"));
+    assertEquals(jdbc.row(4).eventHash(), attest.issued.get(0).get("headHash"));
+  }
+
+  @Test
+  void repairQueuesARefresh() {
+    refresher.onRepaired(new ChainRepaired(PROJECT, ARTIFACT, 3, "p"));
+
+    assertTrue(refresher.refreshPending(PROJECT, ARTIFACT));
+  }
+
+  @Test
+  void invalidChainKeepsTheEntryAndRecordsWhy() throws Exception {
+    jdbc.insert(InMemoryChainJdbc.chain(5, HashSuite.SHA256));
+    index.entry = indexedAt(2, jdbc.row(2).eventHash());
+    jdbc.insert(List.of(InMemoryChainJdbc.withHash(jdbc.row(3), jdbc.row(2).eventHash(), "ff".repeat(32))));
+
+    refresher.refresh(PROJECT, ARTIFACT);
+
+    assertTrue(attest.issued.isEmpty());
+    assertEquals(1, index.failures.size());
+    assertTrue(index.failures.get(0).startsWith("verification failed at 3"), index.failures.get(0));
+  }
+
+  @Test
+  void chainsNeverAttestedAreLeftAlone() throws Exception {
+    // PP_ATTEST_REFRESH_ALL is not set for tests
+    jdbc.insert(InMemoryChainJdbc.chain(3, HashSuite.SHA256));
+
+    refresher.refresh(PROJECT, ARTIFACT);
+
+    assertTrue(attest.issued.isEmpty());
+    assertTrue(index.failures.isEmpty());
+  }
+
+  @Test
+  void signingErrorsAreRecordedInTheIndex() throws Exception {
+    jdbc.insert(InMemoryChainJdbc.chain(5, HashSuite.SHA256));
+    index.entry = indexedAt(2, jdbc.row(2).eventHash());
+    attest.failure = new IllegalStateException("no signing key");
+
+    refresher.refresh(PROJECT, ARTIFACT);
+
+    assertEquals(List.of("refresh error: no signing key"), index.failures);
+  }
+
+  private static AttestationIndex.Entry indexedAt(long headChainIndex, String headHash) {
+    return new AttestationIndex.Entry(PROJECT, ARTIFACT, headChainIndex, headHash, "bundle-1", "{}", Instant.now(), null, null);
+  }
+
+  /** One chain's index entry, without a table. */
+  private static final class RecordingIndex extends AttestationIndex {
+    AttestationIndex.Entry entry;
+    final List<String> failures = new ArrayList<>();
+
+    RecordingIndex() {
+      super(null);
+    }
+
+    @Override
+    public Entry find(String projectId, String artifactId) {
+      return entry;
+    }
+
+    @Override
+    void recordFailure(String projectId, String artifactId, String error) {
+      failures.add(error);
+    }
+  }
+
+  /** Keeps the reports it was asked to sign. */
+  private static final class RecordingAttestations extends AttestationService {
+    final List<Map<String, Object>> issued = new ArrayList<>();
+    RuntimeException failure;
+
+    RecordingAttestations() {
+      super(null, null, null, null);
+    }
+
+    @Override
+    String issue(String projectId, String artifactId, String issuer, Map<String, Object> report) {
+      if (failure != null) throw failure;
+      issued.add(report);
+      return "bundle-" + issued.size();
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package com.proofpulse.ledger.chain;
+
+import com.proofpulse.ledger.crypto.HashSuite;
+import com.proofpulse.ledger.shard.ShardRouter;
+import com.proofpulse.ledger.storage.InMemoryBlobStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.proofpulse.ledger.chain.InMemoryChainJdbc.ARTIFACT;
+import static com.proofpulse.ledger.chain.InMemoryChainJdbc.PROJECT;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChainHeadTest {
+
+  private final InMemoryChainJdbc jdbc = new InMemoryChainJdbc();
+  private final ShardRouter shards = InMemoryChainJdbc.singleShard(jdbc);
+  private final ChainVerificationService verifier =
+      new ChainVerificationService(shards, new ChainArchive(new InMemoryBlobStore()), e -> {});
+  private final ChainVerificationController controller =
+      new ChainVerificationController(verifier, null, null, shards, null);
+
+  @Test
+  void headIsServedWithItsHashAsETag() throws Exception {
+    List<ChainVerificationService.Row> rows = InMemoryChainJdbc.chain(5, HashSuite.SHA256);
+    jdbc.insert(rows);
+
+    ResponseEntity<?> response = controller.head(PROJECT, ARTIFACT, null);
+
+    assertEquals(200, response.getStatusCode().value());
+    assertEquals("\"" + rows.get(4).eventHash() + "\"", response.getHeaders().getETag());
+    Map<?, ?> body = (Map<?, ?>) response.getBody();
+    assertEquals(4L, body.get("headChainIndex"));
+    assertEquals(rows.get(4).eventHash(), body.get("headHash"));
+  }
+
+  @Test
+  void unchangedHeadAnswersNotModified() throws Exception {
+    List<ChainVerificationService.Row> rows = InMemoryChainJdbc.chain(5, HashSuite.SHA256);
+    jdbc.insert(rows);
+    String etag = "\"" + rows.get(4).eventHash() + "\"";
+
+    assertEquals(304, controller.head(PROJECT, ARTIFACT, etag).getStatusCode().value());
+    assertEquals(304, controller.head(PROJECT, ARTIFACT, "\"other\", W/" + etag).getStatusCode().value());
+    assertEquals(304, controller.head(PROJECT, ARTIFACT, "*").getStatusCode().value());
+    assertEquals(200, controller.head(PROJECT, ARTIFACT, "\"" + rows.get(3).eventHash() + "\"").getStatusCode().value());
+  }
+
+  @Test
+  void missingChainIsNotFound() {
+    assertEquals(404, controller.head(PROJECT, ARTIFACT, null).getStatusCode().value());
+  }
+
+  @Test
+  void verifyReportsCarryTheHeadOnlyWhenValid() throws Exception {
+    List<ChainVerificationService.Row> rows = InMemoryChainJdbc.chain(5, HashSuite.SHA256);
+    jdbc.insert(rows);
+
+    Map<String, Object> valid = verifier.verify(PROJECT, ARTIFACT);
+    assertEquals(4L, valid.get("headChainIndex"));
+    assertEquals(rows.get(4).eventHash(), valid.get("headHash"));
+
+    jdbc.insert(List.of(InMemoryChainJdbc.withHash(rows.get(2), rows.get(1).eventHash(), "00".repeat(32))));
+    Map<String, Object> invalid = verifier.verify(PROJECT, ARTIFACT);
+    assertEquals(false, invalid.get("valid"));
+    assertNull(invalid.get("headChainIndex"));
+    assertNull(invalid.get("headHash"));
+  }
+}
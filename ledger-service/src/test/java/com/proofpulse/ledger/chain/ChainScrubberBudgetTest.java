@@ -0,0 +1,59 @@
+package com.proofpulse.ledger.chain;
+
+import com.proofpulse.ledger.crypto.HashSuite;
+import com.proofpulse.ledger.shard.ShardRouter;
+import com.proofpulse.ledger.storage.InMemoryBlobStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.proofpulse.ledger.chain.InMemoryChainJdbc.ARTIFACT;
+import static com.proofpulse.ledger.chain.InMemoryChainJdbc.PROJECT;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChainScrubberBudgetTest {
+
+  private final InMemoryChainJdbc jdbc = new InMemoryChainJdbc();
+  private final ChainArchive archive = new ChainArchive(new InMemoryBlobStore());
+  private final ShardRouter shards = InMemoryChainJdbc.singleShard(jdbc);
+  private final ChainVerificationService verifier = new ChainVerificationService(shards, archive, e -> {});
+  private final SimpleMeterRegistry metrics = new SimpleMeterRegistry();
+  // No tick has run, so the budget is empty: every charged page exhausts it
+  private final ChainScrubber scrubber = new ChainScrubber(jdbc, shards, verifier, null, metrics);
+
+  @Test
+  void verifiedPagesAreChargedAndStopTheScanWhenTheBudgetIsGone() throws Exception {
+    List<ChainVerificationService.Row> rows = InMemoryChainJdbc.chain(2500, HashSuite.SHA256);
+    jdbc.insert(rows);
+    ChainScrubber.Checkpoint cp = new ChainScrubber.Checkpoint(0, null);
+
+    assertNull(verifier.verifyIncremental(PROJECT, ARTIFACT, cp.nextIndex, cp.prevHash, scrubber.budgeted(cp)));
+
+    assertEquals(1000.0, rowsVerified());
+    assertEquals(1000L, cp.nextIndex);
+    assertEquals(rows.get(999).eventHash(), cp.prevHash);
+  }
+
+  @Test
+  void linkedSealedSegmentsAreNotCharged() throws Exception {
+    jdbc.insert(InMemoryChainJdbc.chain(1500, HashSuite.SHA256));
+    jdbc.seal(archive, 0, 999);
+    ChainScrubber.Checkpoint cp = new ChainScrubber.Checkpoint(0, null);
+
+    assertNull(verifier.verifyIncremental(PROJECT, ARTIFACT, cp.nextIndex, cp.prevHash, scrubber.budgeted(cp)));
+    assertEquals(0.0, rowsVerified());
+    assertEquals(1000L, cp.nextIndex);
+
+    Map<String, Object> report =
+        verifier.verifyIncremental(PROJECT, ARTIFACT, cp.nextIndex, cp.prevHash, scrubber.budgeted(cp));
+    assertEquals(true, report.get("valid"));
+    assertEquals(500.0, rowsVerified());
+    assertEquals(1500L, cp.nextIndex);
+  }
+
+  private double rowsVerified() {
+    return metrics.counter("ledger.scrub.rows.verified").count();
+  }
+}
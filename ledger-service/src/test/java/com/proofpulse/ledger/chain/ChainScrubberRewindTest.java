@@ -0,0 +1,61 @@
+package com.proofpulse.ledger.chain;
+
+import com.proofpulse.ledger.storage.InMemoryBlobStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.proofpulse.ledger.chain.InMemoryChainJdbc.ARTIFACT;
+import static com.proofpulse.ledger.chain.InMemoryChainJdbc.PROJECT;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChainScrubberRewindTest {
+
+  private final ScrubStateJdbc jdbc = new ScrubStateJdbc();
+  private final SimpleMeterRegistry metrics = new SimpleMeterRegistry();
+  private final ChainScrubber scrubber = new ChainScrubber(jdbc, InMemoryChainJdbc.singleShard(jdbc),
+      new ChainVerificationService(InMemoryChainJdbc.singleShard(jdbc), new ChainArchive(new InMemoryBlobStore()), e -> {}),
+      null, metrics);
+
+  @Test
+  void repairRewindsTheCheckpointAndQueuesTheChain() {
+    scrubber.onRepaired(new ChainRepaired(PROJECT, ARTIFACT, 1200, "ab".repeat(32)));
+    // Nothing changes until the scheduler thread applies it
+    assertTrue(jdbc.scrubStateUpdates.isEmpty());
+
+    scrubber.rewindRepaired();
+
+    assertEquals(1, jdbc.scrubStateUpdates.size());
+    assertEquals(List.of(1200L, 1200L, "ab".repeat(32), PROJECT, ARTIFACT), jdbc.scrubStateUpdates.get(0));
+    assertEquals(1.0, metrics.get("ledger.scrub.chains.pending").gauge().value());
+
+    scrubber.rewindRepaired();
+    assertEquals(1, jdbc.scrubStateUpdates.size());
+  }
+
+  @Test
+  void verificationAgeIsBucketedNotPerChain() {
+    List<String> buckets = new ArrayList<>();
+    metrics.get("ledger.scrub.chains.verified.within").gauges().forEach(g -> buckets.add(g.getId().getTag("le")));
+    buckets.sort(null);
+
+    assertEquals(List.of("+Inf", "21600", "3600", "60", "600", "86400"), buckets);
+  }
+
+  /** Records chain_scrub_state updates on top of the in-memory chain. */
+  private static final class ScrubStateJdbc extends InMemoryChainJdbc {
+    final List<List<Object>> scrubStateUpdates = new ArrayList<>();
+
+    @Override
+    public int update(String sql, Object... args) {
+      if (sql.contains("UPDATE chain_scrub_state")) {
+        scrubStateUpdates.add(Arrays.asList(args));
+        return 1;
+      }
+      return super.update(sql, args);
+    }
+  }
+}
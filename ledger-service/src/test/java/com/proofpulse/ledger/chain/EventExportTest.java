@@ -0,0 +1,95 @@
+package com.proofpulse.ledger.chain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.proofpulse.ledger.crypto.HashSuite;
+import com.proofpulse.ledger.storage.InMemoryBlobStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.proofpulse.ledger.chain.InMemoryChainJdbc.ARTIFACT;
+import static com.proofpulse.ledger.chain.InMemoryChainJdbc.PROJECT;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventExportTest {
+
+  private final ChainArchive archive = new ChainArchive(new InMemoryBlobStore());
+  private final InMemoryChainJdbc jdbc = new InMemoryChainJdbc();
+  private final ChainVerificationService verifier = new ChainVerificationService(
+      InMemoryChainJdbc.singleShard(jdbc), archive, e -> {});
+
+  @Test
+  void followingNextIndexReturnsEveryEventOnceAcrossHotAndSealedRanges() throws Exception {
+    List<ChainVerificationService.Row> rows = InMemoryChainJdbc.chain(300, HashSuite.SHA256);
+    jdbc.insert(rows);
+    jdbc.seal(archive, 0, 99);
+    jdbc.seal(archive, 150, 199);
+
+    List<Long> exported = exportAll(0, 40);
+
+    List<Long> expected = new ArrayList<>();
+    for (long i = 0; i < 300; i++) expected.add(i);
+    assertEquals(expected, exported);
+  }
+
+  @Test
+  void exportedEventsCarryTheirHashesSuiteAndPayloadTree() throws Exception {
+    List<ChainVerificationService.Row> rows = InMemoryChainJdbc.chain(3, HashSuite.SHA512_256);
+    jdbc.insert(rows);
+
+    Map<String, Object> page = verifier.exportEvents(PROJECT, ARTIFACT, 1, 10);
+    Map<?, ?> event = (Map<?, ?>) ((List<?>) page.get("events")).get(0);
+
+    assertEquals(1L, event.get("chainIndex"));
+    assertEquals(rows.get(0).eventHash(), event.get("prevHash"));
+    assertEquals(rows.get(1).eventHash(), event.get("eventHash"));
+    assertEquals("sha512-256", event.get("hashSuite"));
+    assertEquals(1, ((JsonNode) event.get("payload")).get("n").asInt());
+    assertNull(page.get("nextIndex"));
+  }
+
+  @Test
+  void emptyPageBeforeASealedSegmentSkipsTheGap() throws Exception {
+    jdbc.insert(InMemoryChainJdbc.chain(300, HashSuite.SHA256));
+    jdbc.seal(archive, 100, 199);
+    jdbc.delete(50, 99);
+
+    Map<String, Object> page = verifier.exportEvents(PROJECT, ARTIFACT, 50, 10);
+
+    assertTrue(((List<?>) page.get("events")).isEmpty());
+    assertEquals(100L, page.get("nextIndex"));
+  }
+
+  @Test
+  void emptyPagePastTheHeadEndsTheExport() throws Exception {
+    jdbc.insert(InMemoryChainJdbc.chain(10, HashSuite.SHA256));
+    jdbc.delete(5, 8);
+
+    // Rows 5..8 are missing and nothing is sealed after them: never hand back the same index
+    Map<String, Object> page = verifier.exportEvents(PROJECT, ARTIFACT, 5, 2);
+    assertEquals(List.of(9L), indexes(page));
+    assertNull(page.get("nextIndex"));
+
+    assertNull(verifier.exportEvents(PROJECT, ARTIFACT, 50, 10).get("nextIndex"));
+  }
+
+  private List<Long> exportAll(long from, int limit) throws Exception {
+    List<Long> out = new ArrayList<>();
+    Long next = from;
+    for (int pages = 0; next != null; pages++) {
+      assertTrue(pages < 1000, "export did not terminate");
+      Map<String, Object> page = verifier.exportEvents(PROJECT, ARTIFACT, next, limit);
+      out.addAll(indexes(page));
+      next = (Long) page.get("nextIndex");
+    }
+    return out;
+  }
+
+  private static List<Long> indexes(Map<String, Object> page) {
+    List<Long> out = new ArrayList<>();
+    for (Object e : (List<?>) page.get("events")) out.add((Long) ((Map<?, ?>) e).get("chainIndex"));
+    return out;
+  }
+}
@@ -0,0 +1,322 @@
+package com.proofpulse.ledger.chain;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.proofpulse.ledger.crypto.CanonicalJson;
+import com.proofpulse.ledger.crypto.EventCanonical;
+import com.proofpulse.ledger.crypto.HashSuite;
+import com.proofpulse.ledger.shard.Shard;
+import com.proofpulse.ledger.shard.ShardRouter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * One chain's evidence_events and chain_segments rows in memory, answering the
+ * few statements of the append, read and repair paths (claim, insert, head,
+ * page, manifest, hash rewrite) so they can be tested without PostgreSQL.
+ * Project and artifact filters are ignored. Any other statement fails the test.
+ */
+public class InMemoryChainJdbc extends JdbcTemplate {
+
+  public static final String PROJECT = "proj";
+  public static final String ARTIFACT = "art";
+
+  private final NavigableMap<Long, ChainVerificationService.Row> hot = new TreeMap<>();
+  private final List<ChainArchive.Segment> segments = new ArrayList<>();
+
+  /** Size of every JDBC batch sent, in order. */
+  public final List<Integer> batchSizes = new ArrayList<>();
+  /** evidence_event_ids: eventId -> chain_index. */
+  public final Map<UUID, Long> claimedEventIds = new HashMap<>();
+  /** Payloads sent with pg_notify, in order (may be sent from another thread). */
+  public final List<String> notifications = new CopyOnWriteArrayList<>();
+  /** evidence_rollup_hourly increments: [type, source, hour] -> events. */
+  public final Map<List<Object>, Long> rollups = new HashMap<>();
+
+  /** A valid chain of count rows hashed with suite. */
+  public static List<ChainVerificationService.Row> chain(int count, HashSuite suite) throws Exception {
+    List<ChainVerificationService.Row> rows = new ArrayList<>();
+    String prev = null;
+    for (int i = 0; i < count; i++) {
+      ObjectNode payload = EventCanonical.mapper().createObjectNode().put("n", i);
+      ChainVerificationService.Row r = new ChainVerificationService.Row(
+          UUID.nameUUIDFromBytes(("event-" + i).getBytes()), 1, PROJECT, ARTIFACT, "ci",
+          Instant.parse("2024-05-01T00:00:00Z").plusSeconds(i), "build",
+          CanonicalJson.canonicalize(payload), i, prev, null, suite.id());
+      String hash = ChainVerificationService.computeEventHash(prev, r);
+      rows.add(withHash(r, prev, hash));
+      prev = hash;
+    }
+    return rows;
+  }
+
+  public static ChainVerificationService.Row withHash(ChainVerificationService.Row r, String prevHash, String eventHash) {
+    return new ChainVerificationService.Row(r.eventId(), r.schemaVersion(), r.projectId(), r.artifactId(), r.source(),
+        r.ts(), r.type(), r.payloadJsonCanonical(), r.chainIndex(), prevHash, eventHash, r.hashAlg());
+  }
+
+  public InMemoryChainJdbc insert(List<ChainVerificationService.Row> rows) {
+    for (ChainVerificationService.Row r : rows) hot.put(r.chainIndex(), r);
+    return this;
+  }
+
+  /** Seals rows [first, last] into archive, like ChainSealer: blob + manifest row, hot rows removed. */
+  public ChainArchive.Segment seal(ChainArchive archive, long first, long last) throws Exception {
+    List<ChainVerificationService.Row> rows = new ArrayList<>(hot.subMap(first, true, last, true).values());
+    ChainArchive.Segment s = archive.write(PROJECT, ARTIFACT, rows);
+    hot.subMap(first, true, last, true).clear();
+    segments.add(s);
+    segments.sort(Comparator.comparingLong(ChainArchive.Segment::firstIndex));
+    return s;
+  }
+
+  /** Drops hot rows [first, last], leaving a gap. */
+  public void delete(long first, long last) {
+    hot.subMap(first, true, last, true).clear();
+  }
+
+  public ChainVerificationService.Row row(long chainIndex) {
+    return hot.get(chainIndex);
+  }
+
+  /**
+   * A TransactionTemplate that runs its callback directly and then the
+   * afterCommit / afterCompletion synchronizations it registered. Statements
+   * here are not transactional: a rollback does not undo them.
+   */
+  public static TransactionTemplate immediateTransactions() {
+    return new TransactionTemplate(new PlatformTransactionManager() {
+      @Override
+      public TransactionStatus getTransaction(TransactionDefinition definition) {
+        TransactionSynchronizationManager.initSynchronization();
+        return new SimpleTransactionStatus();
+      }
+
+      @Override
+      public void commit(TransactionStatus status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (status.isRollbackOnly()) {
+          synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+          return;
+        }
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+      }
+
+      @Override
+      public void rollback(TransactionStatus status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+      }
+    });
+  }
+
+  /** A router over one shard on jdbc, transacting through {@link #immediateTransactions()}. */
+  public static ShardRouter singleShard(JdbcTemplate jdbc) {
+    return singleShard(jdbc, null);
+  }
+
+  /** Like {@link #singleShard(JdbcTemplate)}, with a read replica (may be null). */
+  public static ShardRouter singleShard(JdbcTemplate jdbc, JdbcTemplate replicaJdbc) {
+    return new ShardRouter(List.of(new Shard(0, null, jdbc, immediateTransactions(), replicaJdbc)), ShardRouter.KeyMode.PROJECT);
+  }
+
+  @Override
+  public int update(String sql, Object... args) {
+    if (sql.contains("pg_advisory_xact_lock")) return 1;
+    if (sql.contains("INSERT INTO evidence_event_ids")) {
+      return claimedEventIds.putIfAbsent((UUID) args[0], (Long) args[3]) == null ? 1 : 0;
+    }
+    if (sql.contains("UPDATE evidence_event_ids SET chain_index=?")) {
+      return claimedEventIds.replace((UUID) args[1], (Long) args[4], (Long) args[0]) ? 1 : 0;
+    }
+    if (sql.contains("DELETE FROM evidence_event_ids")) {
+      return claimedEventIds.remove((UUID) args[0], (Long) args[3]) ? 1 : 0;
+    }
+    if (sql.contains("INSERT INTO evidence_events")) {
+      ChainVerificationService.Row r = new ChainVerificationService.Row(
+          (UUID) args[0], (Integer) args[1], (String) args[2], (String) args[3], (String) args[4],
+          ((Timestamp) args[5]).toInstant(), (String) args[6], (String) args[7], (Long) args[8],
+          (String) args[9], (String) args[10], (Integer) args[11]);
+      if (hot.putIfAbsent(r.chainIndex(), r) != null) throw new IllegalStateException("duplicate chain_index " + r.chainIndex());
+      return 1;
+    }
+    if (sql.contains("INSERT INTO evidence_rollup_hourly") && sql.contains("VALUES")) {
+      rollups.merge(List.of(args[2], args[3], ((Timestamp) args[4]).toInstant()), (Long) args[5], Long::sum);
+      return 1;
+    }
+    if (sql.contains("pg_notify")) {
+      notifications.add((String) args[1]);
+      return 1;
+    }
+    throw new UnsupportedOperationException("Unexpected update: " + sql);
+  }
+
+  @Override
+  public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+    if (!sql.contains("SET prev_hash = ?, event_hash = ?")) {
+      throw new UnsupportedOperationException("Unexpected batch: " + sql);
+    }
+    batchSizes.add(batchArgs.size());
+    int[] counts = new int[batchArgs.size()];
+    for (int i = 0; i < counts.length; i++) {
+      Object[] a = batchArgs.get(i);
+      ChainVerificationService.Row r = hot.get((Long) a[4]);
+      if (r == null) continue;
+      hot.put(r.chainIndex(), withHash(r, (String) a[0], (String) a[1]));
+      counts[i] = 1;
+    }
+    return counts;
+  }
+
+  @Override
+  public <T> T query(String sql, PreparedStatementSetter pss, ResultSetExtractor<T> rse) {
+    try {
+      return rse.extractData(resultSet(answer(sql, params(pss))));
+    } catch (SQLException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Override
+  public <T> List<T> query(String sql, PreparedStatementSetter pss, RowMapper<T> rowMapper) {
+    try {
+      List<Map<String, Object>> rows = answer(sql, params(pss));
+      ResultSet rs = resultSet(rows);
+      List<T> out = new ArrayList<>();
+      for (int i = 0; rs.next(); i++) out.add(rowMapper.mapRow(rs, i));
+      return out;
+    } catch (SQLException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private List<Map<String, Object>> answer(String sql, Object[] p) {
+    if (sql.contains("FROM chain_segments")) {
+      List<Map<String, Object>> out = new ArrayList<>();
+      for (ChainArchive.Segment s : segments) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("first_index", s.firstIndex());
+        m.put("last_index", s.lastIndex());
+        m.put("first_prev_hash", s.firstPrevHash());
+        m.put("last_event_hash", s.lastEventHash());
+        m.put("event_count", s.eventCount());
+        m.put("blob_key", s.blobKey());
+        m.put("content_sha256", s.contentSha256());
+        m.put("byte_size", s.byteSize());
+        out.add(m);
+      }
+      return out;
+    }
+    if (sql.contains("MAX(chain_index)")) {
+      Map<String, Object> m = new LinkedHashMap<>();
+      m.put("max", hot.isEmpty() ? null : hot.lastKey());
+      return List.of(m);
+    }
+    if (sql.contains("ORDER BY chain_index DESC")) {
+      return hot.isEmpty() ? List.of() : List.of(position(hot.lastEntry().getValue()));
+    }
+    if (sql.contains("FROM evidence_event_ids")) {
+      Long claimed = claimedEventIds.get((UUID) p[0]);
+      return claimed == null ? List.of() : List.of(Map.of("chain_index", claimed));
+    }
+    if (sql.contains("AND chain_index=?")) {
+      ChainVerificationService.Row r = hot.get((Long) p[2]);
+      if (r == null) return List.of();
+      Map<String, Object> m = new LinkedHashMap<>();
+      m.put("event_hash", r.eventHash());
+      m.put("hash_alg", r.hashAlg());
+      m.put("event_id", r.eventId().toString());
+      return List.of(m);
+    }
+    if (sql.contains("SELECT event_id, schema_version")) {
+      List<Map<String, Object>> out = new ArrayList<>();
+      for (ChainVerificationService.Row r : hot.subMap((Long) p[2], true, (Long) p[3], false).values()) {
+        if (out.size() == (Integer) p[4]) break;
+        out.add(columns(r));
+      }
+      return out;
+    }
+    throw new UnsupportedOperationException("Unexpected query: " + sql);
+  }
+
+  private static Map<String, Object> position(ChainVerificationService.Row r) {
+    Map<String, Object> m = new LinkedHashMap<>();
+    m.put("chain_index", r.chainIndex());
+    m.put("event_hash", r.eventHash());
+    return m;
+  }
+
+  private static Map<String, Object> columns(ChainVerificationService.Row r) {
+    Map<String, Object> m = new LinkedHashMap<>();
+    m.put("event_id", r.eventId().toString());
+    m.put("schema_version", r.schemaVersion());
+    m.put("project_id", r.projectId());
+    m.put("artifact_id", r.artifactId());
+    m.put("source", r.source());
+    m.put("ts", Timestamp.from(r.ts()));
+    m.put("type", r.type());
+    m.put("payload", r.payloadJsonCanonical());
+    m.put("chain_index", r.chainIndex());
+    m.put("prev_hash", r.prevHash());
+    m.put("event_hash", r.eventHash());
+    m.put("hash_alg", r.hashAlg());
+    return m;
+  }
+
+  private static Object[] params(PreparedStatementSetter pss) throws SQLException {
+    Object[] values = new Object[8];
+    PreparedStatement ps = (PreparedStatement) Proxy.newProxyInstance(
+        InMemoryChainJdbc.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+        (proxy, method, args) -> {
+          if (method.getName().startsWith("set") && args != null && args.length == 2) {
+            values[(Integer) args[0] - 1] = args[1];
+            return null;
+          }
+          throw new UnsupportedOperationException(method.getName());
+        });
+    if (pss != null) pss.setValues(ps);
+    return values;
+  }
+
+  /** Columns by label or by 1-based position, in insertion order. */
+  private static ResultSet resultSet(List<Map<String, Object>> rows) {
+    int[] cursor = {-1};
+    return (ResultSet) Proxy.newProxyInstance(
+        InMemoryChainJdbc.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+        (proxy, method, args) -> {
+          if (method.getName().equals("next")) return ++cursor[0] < rows.size();
+          if (!method.getName().startsWith("get") || args == null || args.length != 1) {
+            throw new UnsupportedOperationException(method.getName());
+          }
+          Map<String, Object> row = rows.get(cursor[0]);
+          Object v = (args[0] instanceof Integer i)
+              ? new ArrayList<>(row.values()).get(i - 1)
+              : row.get((String) args[0]);
+          return switch (method.getName()) {
+            case "getLong" -> v == null ? 0L : ((Number) v).longValue();
+            case "getInt" -> v == null ? 0 : ((Number) v).intValue();
+            default -> v;
+          };
+        });
+  }
+}
@@ -0,0 +1,70 @@
+package com.proofpulse.ledger.chain;
+
+import com.proofpulse.ledger.crypto.HashSuite;
+import com.proofpulse.ledger.storage.InMemoryBlobStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.proofpulse.ledger.chain.InMemoryChainJdbc.ARTIFACT;
+import static com.proofpulse.ledger.chain.InMemoryChainJdbc.PROJECT;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResumableVerificationTest {
+
+  private final InMemoryChainJdbc jdbc = new InMemoryChainJdbc();
+  private final ChainVerificationService verifier = new ChainVerificationService(
+      InMemoryChainJdbc.singleShard(jdbc),
+      new ChainArchive(new InMemoryBlobStore()),
+      e -> {});
+
+  @Test
+  void checkpointsAfterEveryPageAndOnceAtTheEnd() throws Exception {
+    jdbc.insert(InMemoryChainJdbc.chain(2500, HashSuite.SHA256));
+    List<Long> checkpoints = new ArrayList<>();
+
+    Map<String, Object> report = verifier.verifyFrom(PROJECT, ARTIFACT, 0, null,
+        (next, prev, total) -> checkpoints.add(next));
+
+    assertEquals(true, report.get("valid"));
+    assertEquals(2500L, report.get("totalEvents"));
+    assertEquals(List.of(1000L, 2000L, 2500L), checkpoints);
+  }
+
+  @Test
+  void stoppedVerificationResumesFromItsCheckpoint() throws Exception {
+    List<ChainVerificationService.Row> rows = InMemoryChainJdbc.chain(2500, HashSuite.SHA512_256);
+    jdbc.insert(rows);
+    long[] next = new long[1];
+    String[] prev = new String[1];
+
+    Map<String, Object> stopped = verifier.verifyFrom(PROJECT, ARTIFACT, 0, null, (n, p, total) -> {
+      next[0] = n;
+      prev[0] = p;
+      return false;
+    });
+    assertNull(stopped);
+    assertEquals(1000L, next[0]);
+    assertEquals(rows.get(999).eventHash(), prev[0]);
+
+    Map<String, Object> resumed = verifier.verifyFrom(PROJECT, ARTIFACT, next[0], prev[0],
+        ChainVerificationService.Progress.NONE);
+    assertEquals(true, resumed.get("valid"));
+    assertEquals(2499L, resumed.get("headChainIndex"));
+    assertEquals(rows.get(2499).eventHash(), resumed.get("headHash"));
+  }
+
+  @Test
+  void resumingWithTheWrongPreviousHashIsAMismatch() throws Exception {
+    jdbc.insert(InMemoryChainJdbc.chain(1500, HashSuite.SHA256));
+
+    Map<String, Object> report = verifier.verifyFrom(PROJECT, ARTIFACT, 1000, "00".repeat(32),
+        ChainVerificationService.Progress.NONE);
+
+    assertEquals(false, report.get("valid"));
+    assertEquals(1000L, report.get("firstMismatchIndex"));
+    assertEquals("prev_hash mismatch", report.get("reason"));
+  }
+}
@@ -0,0 +1,137 @@
+package com.proofpulse.ledger.chain;
+
+import com.proofpulse.ledger.crypto.HashSuite;
+import com.proofpulse.ledger.storage.InMemoryBlobStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.proofpulse.ledger.chain.InMemoryChainJdbc.ARTIFACT;
+import static com.proofpulse.ledger.chain.InMemoryChainJdbc.PROJECT;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SealedSegmentVerificationTest {
+
+  private final InMemoryBlobStore blobs = new InMemoryBlobStore();
+  private final ChainArchive archive = new ChainArchive(blobs);
+  private final InMemoryChainJdbc jdbc = new InMemoryChainJdbc();
+  private final ChainVerificationService verifier = new ChainVerificationService(
+      InMemoryChainJdbc.singleShard(jdbc), archive, e -> {});
+
+  private List<ChainVerificationService.Row> rows;
+
+  private void chainWithTwoSegments() throws Exception {
+    rows = InMemoryChainJdbc.chain(300, HashSuite.SHA256);
+    jdbc.insert(rows);
+    jdbc.seal(archive, 0, 99);
+    jdbc.seal(archive, 100, 199);
+  }
+
+  @Test
+  void segmentRoundTripsThroughTheBlobStore() throws Exception {
+    chainWithTwoSegments();
+    ChainArchive.Segment s = archive.segments(jdbc, PROJECT, ARTIFACT).get(1);
+
+    assertEquals(100, s.firstIndex());
+    assertEquals(199, s.lastIndex());
+    assertEquals(rows.get(99).eventHash(), s.firstPrevHash());
+    assertEquals(rows.get(199).eventHash(), s.lastEventHash());
+    assertEquals(rows.subList(100, 200), archive.read(s));
+  }
+
+  @Test
+  void aWindowOfASegmentDecodesOnlyThoseRows() throws Exception {
+    chainWithTwoSegments();
+    ChainArchive.Segment s = archive.segments(jdbc, PROJECT, ARTIFACT).get(1);
+
+    assertEquals(rows.subList(150, 152), archive.read(s, 150, 2));
+    assertEquals(rows.subList(190, 200), archive.read(s, 190, 50));
+    assertEquals(List.of(rows.get(100)), archive.read(s, 0, 1));
+  }
+
+  @Test
+  void coveringAndNextAfterFindSegmentsByIndex() throws Exception {
+    chainWithTwoSegments();
+    List<ChainArchive.Segment> segments = archive.segments(jdbc, PROJECT, ARTIFACT);
+
+    assertEquals(0, ChainArchive.covering(segments, 0).firstIndex());
+    assertEquals(100, ChainArchive.covering(segments, 150).firstIndex());
+    assertNull(ChainArchive.covering(segments, 200));
+    assertEquals(100, ChainArchive.nextAfter(segments, 0).firstIndex());
+    assertNull(ChainArchive.nextAfter(segments, 100));
+  }
+
+  @Test
+  void fullVerifyReadsSegmentsAndHotRows() throws Exception {
+    chainWithTwoSegments();
+
+    Map<String, Object> report = verifier.verify(PROJECT, ARTIFACT);
+
+    assertEquals(true, report.get("valid"));
+    assertEquals(300L, report.get("totalEvents"));
+    assertEquals(rows.get(299).eventHash(), report.get("headHash"));
+  }
+
+  @Test
+  void swappedSegmentBlobIsDetected() throws Exception {
+    chainWithTwoSegments();
+    ChainArchive.Segment s = archive.segments(jdbc, PROJECT, ARTIFACT).get(0);
+    blobs.objects.put(s.blobKey(), archive.segments(jdbc, PROJECT, ARTIFACT).get(1).blobKey().getBytes());
+
+    Map<String, Object> report = verifier.verify(PROJECT, ARTIFACT);
+
+    assertEquals(false, report.get("valid"));
+    assertEquals(0L, report.get("firstMismatchIndex"));
+    assertTrue(((String) report.get("reason")).startsWith("archive_error"));
+  }
+
+  @Test
+  void incrementalVerifyLinksSegmentsWithoutDownloadingThem() throws Exception {
+    chainWithTwoSegments();
+    blobs.objects.clear();
+    List<Long> linked = new ArrayList<>();
+
+    Map<String, Object> report = verifier.verifyIncremental(PROJECT, ARTIFACT, 0, null,
+        new ChainVerificationService.Progress() {
+          @Override
+          public boolean checkpoint(long nextIndex, String prevHash, long totalEvents) {
+            return true;
+          }
+
+          @Override
+          public boolean linked(long nextIndex, String prevHash, long totalEvents) {
+            linked.add(nextIndex);
+            return true;
+          }
+        });
+
+    assertEquals(true, report.get("valid"));
+    assertEquals(List.of(100L, 200L), linked);
+  }
+
+  @Test
+  void incrementalVerifyFromInsideASegmentReadsThatSegment() throws Exception {
+    // Checkpoint taken at 150 while hot, then 100..199 was sealed
+    chainWithTwoSegments();
+
+    Map<String, Object> report = verifier.verifyIncremental(PROJECT, ARTIFACT, 150, rows.get(149).eventHash(),
+        ChainVerificationService.Progress.NONE);
+
+    assertEquals(true, report.get("valid"));
+    assertEquals(rows.get(299).eventHash(), report.get("headHash"));
+  }
+
+  @Test
+  void incrementalVerifyRejectsABrokenSegmentBoundary() throws Exception {
+    chainWithTwoSegments();
+
+    Map<String, Object> report = verifier.verifyIncremental(PROJECT, ARTIFACT, 100, "00".repeat(32),
+        ChainVerificationService.Progress.NONE);
+
+    assertEquals(false, report.get("valid"));
+    assertEquals("segment boundary mismatch", report.get("reason"));
+    assertEquals(100L, report.get("firstMismatchIndex"));
+  }
+}
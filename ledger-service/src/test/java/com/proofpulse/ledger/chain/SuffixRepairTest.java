@@ -0,0 +1,89 @@
+package com.proofpulse.ledger.chain;
+
+import com.proofpulse.ledger.crypto.HashSuite;
+import com.proofpulse.ledger.storage.InMemoryBlobStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.proofpulse.ledger.chain.InMemoryChainJdbc.ARTIFACT;
+import static com.proofpulse.ledger.chain.InMemoryChainJdbc.PROJECT;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SuffixRepairTest {
+
+  private final InMemoryChainJdbc jdbc = new InMemoryChainJdbc();
+  private final ChainArchive archive = new ChainArchive(new InMemoryBlobStore());
+  private final List<Object> published = new ArrayList<>();
+  private final ChainVerificationService verifier = new ChainVerificationService(
+      InMemoryChainJdbc.singleShard(jdbc),
+      archive,
+      published::add);
+
+  @Test
+  void rewritesOnlyTheSuffixFromTheFirstMismatchInBoundedBatches() throws Exception {
+    List<ChainVerificationService.Row> rows = InMemoryChainJdbc.chain(2500, HashSuite.SHA256);
+    jdbc.insert(rows);
+    tamperPayload(1200);
+
+    Map<String, Object> report = verifier.repair(PROJECT, ARTIFACT, false);
+
+    assertEquals(true, report.get("valid"));
+    Map<?, ?> repair = (Map<?, ?>) report.get("repair");
+    assertEquals(1200L, repair.get("fromIndex"));
+    assertEquals(1300L, repair.get("rowsScanned"));
+    assertEquals(1300L, repair.get("rowsChanged"));
+    // Flushed as soon as a batch fills, not once per page
+    assertEquals(List.of(500, 500, 300), jdbc.batchSizes);
+    assertEquals(rows.get(1199).eventHash(), jdbc.row(1199).eventHash());
+    assertEquals(rows.get(1199).eventHash(), jdbc.row(1200).prevHash());
+    assertNull(verifier.repairStatus(PROJECT, ARTIFACT));
+    assertEquals(List.of(new ChainRepaired(PROJECT, ARTIFACT, 1200, rows.get(1199).eventHash())), published);
+  }
+
+  @Test
+  void dryRunCountsWithoutWriting() throws Exception {
+    jdbc.insert(InMemoryChainJdbc.chain(1500, HashSuite.SHA512_256));
+    tamperPayload(1400);
+
+    Map<String, Object> report = verifier.repair(PROJECT, ARTIFACT, true);
+
+    assertEquals(false, report.get("valid"));
+    Map<?, ?> repair = (Map<?, ?>) report.get("repair");
+    assertEquals(100L, repair.get("rowsWouldChange"));
+    assertTrue(jdbc.batchSizes.isEmpty());
+    assertTrue(published.isEmpty());
+  }
+
+  @Test
+  void validChainIsLeftAlone() throws Exception {
+    jdbc.insert(InMemoryChainJdbc.chain(10, HashSuite.SHA256_LEGACY));
+
+    Map<String, Object> report = verifier.repair(PROJECT, ARTIFACT, false);
+
+    assertEquals(true, report.get("valid"));
+    assertEquals(0L, ((Map<?, ?>) report.get("repair")).get("rowsChanged"));
+    assertTrue(jdbc.batchSizes.isEmpty());
+  }
+
+  @Test
+  void mismatchBehindASealedSegmentIsRefused() throws Exception {
+    jdbc.insert(InMemoryChainJdbc.chain(20, HashSuite.SHA256));
+    tamperPayload(5);
+    jdbc.seal(archive, 0, 9);
+
+    Map<String, Object> report = verifier.repair(PROJECT, ARTIFACT, false);
+
+    assertEquals(false, report.get("valid"));
+    assertTrue(((String) report.get("reason")).startsWith("mismatch in sealed segment"));
+    assertTrue(jdbc.batchSizes.isEmpty());
+  }
+
+  private void tamperPayload(long chainIndex) {
+    ChainVerificationService.Row r = jdbc.row(chainIndex);
+    jdbc.insert(List.of(new ChainVerificationService.Row(r.eventId(), r.schemaVersion(), r.projectId(), r.artifactId(),
+        r.source(), r.ts(), r.type(), "{\"n\":\"tampered\"}", r.chainIndex(), r.prevHash(), r.eventHash(), r.hashAlg())));
+  }
+}
@@ -0,0 +1,110 @@
+package com.proofpulse.ledger.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedDataSourceTest {
+
+  private final CountingDataSource pool = new CountingDataSource();
+
+  @Test
+  void callersQueueUntilAConnectionIsClosed() throws Exception {
+    BoundedDataSource ds = new BoundedDataSource(pool, 1);
+    Connection first = ds.getConnection();
+
+    CountDownLatch got = new CountDownLatch(1);
+    Thread waiter = ThreadMode.factory("bounded-test").newThread(() -> {
+      try (Connection c = ds.getConnection()) {
+        got.countDown();
+      } catch (SQLException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    waiter.start();
+
+    for (int i = 0; i < 200 && ds.waiting() == 0; i++) Thread.sleep(5);
+    assertEquals(1, ds.waiting());
+    assertEquals(1, pool.open.get());
+
+    first.close();
+    assertTrue(got.await(5, TimeUnit.SECONDS));
+    waiter.join(5_000);
+    assertEquals(0, ds.waiting());
+    assertEquals(0, pool.open.get());
+  }
+
+  @Test
+  void closingTwiceReturnsOnePermit() throws Exception {
+    BoundedDataSource ds = new BoundedDataSource(pool, 1);
+    Connection c = ds.getConnection();
+    c.close();
+    c.close();
+
+    // Only one permit exists: a second acquisition would block if the double close had leaked one
+    Connection a = ds.getConnection();
+    assertEquals(1, pool.open.get());
+    a.close();
+    assertEquals(2, pool.opened.get());
+  }
+
+  @Test
+  void aFailedCheckoutGivesThePermitBack() throws Exception {
+    BoundedDataSource ds = new BoundedDataSource(pool, 1);
+    pool.fail = true;
+    assertThrows(SQLException.class, ds::getConnection);
+
+    pool.fail = false;
+    ds.getConnection().close();
+    assertEquals(1, pool.opened.get());
+  }
+
+  @Test
+  void platformThreadsAreNamedDaemons() {
+    ThreadFactory factory = ThreadMode.factory("worker");
+    Thread a = factory.newThread(() -> {});
+    Thread b = factory.newThread(() -> {});
+
+    // PP_VIRTUAL_THREADS is not set for tests
+    assertFalse(a.isVirtual());
+    assertTrue(a.isDaemon());
+    assertEquals("worker-1", a.getName());
+    assertEquals("worker-2", b.getName());
+  }
+
+  /** Hands out connections that only count how many are open. */
+  private static final class CountingDataSource extends AbstractDataSource {
+    final AtomicInteger open = new AtomicInteger();
+    final AtomicInteger opened = new AtomicInteger();
+    volatile boolean fail;
+
+    @Override
+    public Connection getConnection() throws SQLException {
+      if (fail) throw new SQLException("pool exhausted");
+      open.incrementAndGet();
+      opened.incrementAndGet();
+      AtomicBoolean closed = new AtomicBoolean();
+      return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+          (proxy, method, args) -> {
+            // Like a real connection, closing twice is a no-op
+            if (method.getName().equals("close") && closed.compareAndSet(false, true)) open.decrementAndGet();
+            return null;
+          });
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+      return getConnection();
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package com.proofpulse.ledger.crypto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CanonicalJsonTest {
+
+  private static final String JSON = "{\"b\":0.1,\"a\":[1,\"x\",true,null],\"n\":10,\"z\":{\"y\":2.50,\"x\":-0.0}}";
+
+  @Test
+  void sortsKeysRecursivelyAndNormalizesNumbers() throws Exception {
+    JsonNode node = new ObjectMapper().readTree(JSON);
+    // Stored hashes depend on this exact form, including 10 -> 1E+1 from stripTrailingZeros
+    assertEquals("{\"a\":[1,\"x\",true,null],\"b\":0.1,\"n\":1E+1,\"z\":{\"x\":0,\"y\":2.5}}", CanonicalJson.canonicalize(node));
+  }
+
+  @Test
+  void binaryFormatsCanonicalizeLikeTheJsonText() throws Exception {
+    String expected = CanonicalJson.canonicalize(new ObjectMapper().readTree(JSON));
+
+    for (ObjectMapper binary : List.of(new CBORMapper(), new SmileMapper())) {
+      byte[] encoded = binary.writeValueAsBytes(document());
+      assertEquals(expected, CanonicalJson.canonicalize(binary.readTree(encoded)), binary.getClass().getSimpleName());
+    }
+  }
+
+  /** JSON's document with 32-bit floats, as a CBOR or Smile producer would send it. */
+  private static Map<String, Object> document() {
+    Map<String, Object> z = new LinkedHashMap<>();
+    z.put("y", 2.5f);
+    z.put("x", -0.0f);
+    Map<String, Object> m = new LinkedHashMap<>();
+    m.put("b", 0.1f);
+    m.put("a", Arrays.asList(1, "x", true, null));
+    m.put("n", 10);
+    m.put("z", z);
+    return m;
+  }
+}
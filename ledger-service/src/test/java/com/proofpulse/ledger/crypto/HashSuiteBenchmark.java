@@ -0,0 +1,81 @@
+package com.proofpulse.ledger.crypto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-event event_hash cost of each {@link HashSuite}, single-threaded, for a
+ * few canonical event sizes. Run with bench/hash-suite-benchmark.sh; prints
+ * one JSON line per suite and size.
+ *
+ *   args: [seconds per measurement (default 3)] [event sizes in bytes, comma separated]
+ */
+public final class HashSuiteBenchmark {
+
+  private HashSuiteBenchmark() {}
+
+  public static void main(String[] args) {
+    long seconds = args.length > 0 ? Long.parseLong(args[0]) : 3;
+    String sizes = args.length > 1 ? args[1] : "256,1024,4096,65536";
+
+    for (String size : sizes.split(",")) {
+      List<String> events = events(Integer.parseInt(size.trim()));
+      for (HashSuite suite : HashSuite.values()) {
+        run(suite, events, seconds); // warmup
+        long[] r = run(suite, events, seconds);
+
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("suite", suite.label());
+        out.put("eventBytes", events.get(0).length());
+        out.put("events", r[0]);
+        out.put("nsPerEvent", r[1] / r[0]);
+        out.put("mbPerSec", Math.round(r[0] * (double) events.get(0).length() / (r[1] / 1e9) / 1e6));
+        System.out.println(json(out));
+      }
+    }
+  }
+
+  /** Hashes a chain through the events until the time is up; returns {events, nanos}. */
+  private static long[] run(HashSuite suite, List<String> events, long seconds) {
+    long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+    long started = System.nanoTime();
+    long n = 0;
+    String prev = null;
+    while (System.nanoTime() < deadline) {
+      for (String e : events) prev = suite.eventHash(prev, e);
+      n += events.size();
+    }
+    long elapsed = System.nanoTime() - started;
+    if (prev == null) throw new IllegalStateException();
+    return new long[]{n, elapsed};
+  }
+
+  /** Canonical-looking event JSON padded to roughly the requested size; ASCII, so chars == bytes. */
+  private static List<String> events(int bytes) {
+    List<String> out = new ArrayList<>();
+    for (int i = 0; i < 64; i++) {
+      StringBuilder sb = new StringBuilder()
+          .append("{\"artifactId\":\"artifact-").append(i)
+          .append("\",\"eventId\":\"").append(UUID.randomUUID())
+          .append("\",\"payload\":{\"data\":\"");
+      String tail = "\"},\"projectId\":\"bench\",\"schemaVersion\":1,\"source\":\"ci\","
+          + "\"timestamp\":\"2024-01-01T00:00:00Z\",\"type\":\"build\"}";
+      while (sb.length() + tail.length() < bytes) sb.append((char) ('a' + sb.length() % 26));
+      out.add(sb.append(tail).toString());
+    }
+    return out;
+  }
+
+  private static String json(Map<String, Object> m) {
+    StringBuilder sb = new StringBuilder("{");
+    for (Map.Entry<String, Object> e : m.entrySet()) {
+      if (sb.length() > 1) sb.append(',');
+      sb.append('"').append(e.getKey()).append("\":");
+      sb.append(e.getValue() instanceof String ? "\"" + e.getValue() + "\"" : e.getValue());
+    }
+    return sb.append('}').toString();
+  }
+}
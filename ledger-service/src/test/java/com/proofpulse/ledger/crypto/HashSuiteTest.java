@@ -0,0 +1,83 @@
+package com.proofpulse.ledger.crypto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashSuiteTest {
+
+  private static final String EVENT = "{\"eventId\":\"e1\",\"payload\":{\"ok\":true}}";
+
+  @Test
+  void legacySuiteMatchesTheOriginalStringJoin() throws Exception {
+    String genesis = sha256Hex("" + "|" + EVENT);
+    assertEquals(genesis, HashSuite.SHA256_LEGACY.eventHash(null, EVENT));
+
+    String next = sha256Hex(genesis + "|" + EVENT);
+    assertEquals(next, HashSuite.SHA256_LEGACY.eventHash(genesis, EVENT));
+  }
+
+  @Test
+  void framedSuitesDifferFromLegacyAndFromEachOther() {
+    String legacy = HashSuite.SHA256_LEGACY.eventHash(null, EVENT);
+    String sha256 = HashSuite.SHA256.eventHash(null, EVENT);
+    String sha512 = HashSuite.SHA512_256.eventHash(null, EVENT);
+
+    assertNotEquals(legacy, sha256);
+    assertNotEquals(sha256, sha512);
+    assertEquals(64, sha256.length());
+    assertEquals(64, sha512.length());
+  }
+
+  @Test
+  void framedSuitesAreDeterministicAndBindThePreviousHash() {
+    for (HashSuite suite : HashSuite.values()) {
+      String genesis = suite.eventHash(null, EVENT);
+      assertEquals(genesis, suite.eventHash(null, EVENT), suite.label());
+
+      String a = suite.eventHash(genesis, EVENT);
+      String b = suite.eventHash(suite.eventHash(null, EVENT + " "), EVENT);
+      assertNotEquals(a, b);
+    }
+  }
+
+  @Test
+  void framedSuitesFollowTheDocumentedLayout() throws Exception {
+    // Pins the byte layout so rows hashed today still verify after a refactor
+    String prev = HashSuite.SHA512_256.eventHash(null, EVENT);
+    byte[] prevBytes = HexFormat.of().parseHex(prev);
+    byte[] event = EVENT.getBytes(StandardCharsets.UTF_8);
+
+    MessageDigest md = MessageDigest.getInstance("SHA-512/256");
+    md.update("proofpulse/event-hash/v1\0".getBytes(StandardCharsets.UTF_8));
+    md.update((byte) 2);
+    md.update(ByteBuffer.allocate(4).putInt(prevBytes.length).array());
+    md.update(prevBytes);
+    md.update(ByteBuffer.allocate(4).putInt(event.length).array());
+    md.update(event);
+
+    assertEquals(HexFormat.of().formatHex(md.digest()), HashSuite.SHA512_256.eventHash(prev, EVENT));
+  }
+
+  @Test
+  void lookupByIdAndName() {
+    for (HashSuite suite : HashSuite.values()) {
+      assertSame(suite, HashSuite.byId(suite.id()));
+      assertSame(suite, HashSuite.byName(suite.label()));
+      assertSame(suite, HashSuite.byName(suite.label().toUpperCase()));
+    }
+    assertEquals(0, HashSuite.SHA256_LEGACY.id());
+    assertThrows(IllegalArgumentException.class, () -> HashSuite.byId(99));
+    assertThrows(IllegalArgumentException.class, () -> HashSuite.byName("md5"));
+  }
+
+  private static String sha256Hex(String s) throws Exception {
+    MessageDigest md = MessageDigest.getInstance("SHA-256");
+    return HexFormat.of().formatHex(md.digest(s.getBytes(StandardCharsets.UTF_8)));
+  }
+}
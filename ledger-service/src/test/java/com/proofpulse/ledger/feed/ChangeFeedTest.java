@@ -0,0 +1,104 @@
+package com.proofpulse.ledger.feed;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeFeedTest {
+
+  private final ChangeFeed feed = new ChangeFeed(null, new ObjectMapper(), new SimpleMeterRegistry());
+
+  @Test
+  void deliversMatchingEventsInOrderAfterTheBackfill() throws Exception {
+    RecordingSink sink = new RecordingSink(2);
+    ChangeFeed.Subscription s = feed.subscribe("proj", "art", null, sink);
+
+    // Arrive while the backfill runs: 0 and 1 are covered by it, the other chain is filtered out
+    feed.publish(event("art", 0));
+    feed.publish(event("other", 5));
+    feed.publish(event("art", 1));
+    feed.publish(event("art", 2));
+    feed.start(s, () -> 1);
+    feed.publish(event("art", 3));
+
+    assertTrue(sink.received.await(5, TimeUnit.SECONDS));
+    assertEquals(List.of(2L, 3L), sink.indexes());
+    assertNull(sink.closedWith);
+  }
+
+  @Test
+  void typeFilterAndNullFiltersMatchAsDocumented() throws Exception {
+    RecordingSink sink = new RecordingSink(2);
+    ChangeFeed.Subscription s = feed.subscribe(null, null, "deploy", sink);
+    feed.start(s, null);
+
+    feed.publish(new FeedEvent("p1", "a", 0, "e0", "build", "h"));
+    feed.publish(new FeedEvent("p1", "a", 1, "e1", "deploy", "h"));
+    feed.publish(new FeedEvent("p2", "b", 7, "e2", "deploy", "h"));
+
+    assertTrue(sink.received.await(5, TimeUnit.SECONDS));
+    assertEquals(List.of(1L, 7L), sink.indexes());
+  }
+
+  @Test
+  void slowSubscriberIsDroppedWhenItsBufferIsFull() throws Exception {
+    RecordingSink sink = new RecordingSink(1);
+    feed.subscribe("proj", "art", null, sink);
+
+    // Not started: nothing drains, so the default buffer of 1000 fills up
+    for (int i = 0; i <= 1000; i++) feed.publish(event("art", i));
+
+    assertTrue(sink.closed.await(5, TimeUnit.SECONDS));
+    assertTrue(sink.closedWith.startsWith("slow consumer"));
+    assertTrue(sink.events.isEmpty());
+  }
+
+  @Test
+  void failedBackfillClosesTheSubscription() throws Exception {
+    RecordingSink sink = new RecordingSink(1);
+    ChangeFeed.Subscription s = feed.subscribe("proj", "art", null, sink);
+
+    feed.start(s, () -> { throw new IllegalStateException("boom"); });
+
+    assertTrue(sink.closed.await(5, TimeUnit.SECONDS));
+    assertEquals("backfill failed: boom", sink.closedWith);
+  }
+
+  private static FeedEvent event(String artifactId, long chainIndex) {
+    return new FeedEvent("proj", artifactId, chainIndex, "e" + chainIndex, "build", "h" + chainIndex);
+  }
+
+  private static final class RecordingSink implements ChangeFeed.Sink {
+    final List<FeedEvent> events = new CopyOnWriteArrayList<>();
+    final CountDownLatch received;
+    final CountDownLatch closed = new CountDownLatch(1);
+    volatile String closedWith;
+
+    RecordingSink(int expected) {
+      this.received = new CountDownLatch(expected);
+    }
+
+    @Override
+    public void send(FeedEvent event) {
+      events.add(event);
+      received.countDown();
+    }
+
+    @Override
+    public void close(String reason) {
+      closedWith = reason;
+      closed.countDown();
+    }
+
+    List<Long> indexes() {
+      return events.stream().map(FeedEvent::chainIndex).toList();
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package com.proofpulse.ledger.feed;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proofpulse.ledger.chain.ChainAppended;
+import com.proofpulse.ledger.chain.InMemoryChainJdbc;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeedNotifierTest {
+
+  private final InMemoryChainJdbc jdbc = new InMemoryChainJdbc();
+
+  @Test
+  void aBatchIsOneNotifyStatementInChainOrder() throws Exception {
+    List<ChainAppended> batch = new ArrayList<>(List.of(appended("b", 0), appended("a", 1), appended("a", 0)));
+
+    FeedNotifier.notifyBatch(jdbc, batch);
+
+    assertEquals(1, jdbc.notifications.size());
+    JsonNode notes = new ObjectMapper().readTree(jdbc.notifications.get(0));
+    assertEquals(3, notes.size());
+    assertEquals("a", notes.get(0).get("artifactId").asText());
+    assertEquals(0, notes.get(0).get("chainIndex").asLong());
+    assertEquals(1, notes.get(1).get("chainIndex").asLong());
+    assertEquals("b", notes.get(2).get("artifactId").asText());
+    assertEquals("deploy", notes.get(2).get("type").asText());
+  }
+
+  @Test
+  void committedAppendsAreNotifiedInTheBackground() throws Exception {
+    // PP_FEED_ENABLED is not set for tests
+    FeedNotifier notifier = new FeedNotifier(InMemoryChainJdbc.singleShard(jdbc), new SimpleMeterRegistry());
+    try {
+      notifier.onAppended(appended("a", 0));
+      notifier.onAppended(appended("a", 1));
+
+      int notified = 0;
+      for (int i = 0; i < 500 && notified < 2; i++) {
+        Thread.sleep(10);
+        notified = 0;
+        for (String n : jdbc.notifications) notified += new ObjectMapper().readTree(n).size();
+      }
+      assertEquals(2, notified);
+    } finally {
+      notifier.shutdown();
+    }
+  }
+
+  private static ChainAppended appended(String artifactId, long chainIndex) {
+    return new ChainAppended("proj", artifactId, chainIndex, "h" + chainIndex, UUID.randomUUID(), "deploy");
+  }
+}
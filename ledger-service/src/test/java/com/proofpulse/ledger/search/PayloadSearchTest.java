@@ -0,0 +1,134 @@
+package com.proofpulse.ledger.search;
+
+import com.proofpulse.ledger.crypto.EventCanonical;
+import com.proofpulse.ledger.shard.Shard;
+import com.proofpulse.ledger.shard.ShardRouter;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PayloadSearchTest {
+
+  // Routing by chain: one project's chains are spread over both shards
+  private final KeysetRows shard0 = new KeysetRows(key("a", 1), key("Z", 2), key("é", 1));
+  private final PayloadSearchService search = new PayloadSearchService(new ShardRouter(List.of(
+      new Shard(0, null, shard0, null, null),
+      new Shard(1, null, new KeysetRows(key("Z", 1), key("b", 1), key("a", 2)), null, null)
+  ), ShardRouter.KeyMode.CHAIN), new SearchIndexes(null));
+
+  @Test
+  void keysetOrderIsByteOrderThenChainIndex() {
+    List<Map<String, Object>> rows = new ArrayList<>(List.of(key("é", 1), key("a", 2), key("Z", 1), key("a", 1)));
+    rows.sort(PayloadSearchService.KEYSET_ORDER);
+
+    // Upper case sorts before lower case, and non-ASCII after both, as under COLLATE "C"
+    assertEquals(List.of(key("Z", 1), key("a", 1), key("a", 2), key("é", 1)), rows);
+  }
+
+  @Test
+  void pagesMergeShardsAndResumeFromTheCursor() throws Exception {
+    List<String> seen = new ArrayList<>();
+    String cursor = null;
+    int pages = 0;
+    do {
+      Map<String, Object> page = search.search("proj", null, null, EventCanonical.mapper().readTree("{\"k\":1}"), null, null, 2, cursor);
+      @SuppressWarnings("unchecked")
+      List<Map<String, Object>> results = (List<Map<String, Object>>) page.get("results");
+      for (Map<String, Object> r : results) seen.add(r.get("artifactId") + "#" + r.get("chainIndex"));
+      cursor = (String) page.get("nextCursor");
+      pages++;
+    } while (cursor != null);
+
+    assertEquals(List.of("Z#1", "Z#2", "a#1", "a#2", "b#1", "é#1"), seen);
+    assertEquals(3, pages);
+  }
+
+  @Test
+  void pathValueIsTextEqualityNarrowedByContainmentOnUnindexedPaths() {
+    // PP_SEARCH_INDEXED_PATHS is not set for tests, so no path is indexed
+    search.search("proj", null, null, null, "scan.severity", "5", 10, null);
+
+    String sql = shard0.lastSql;
+    assertTrue(sql.contains("(payload #>> '{scan,severity}') = ?"), sql);
+    assertTrue(sql.contains("(payload @> (?::jsonb) OR payload @> (?::jsonb))"), sql);
+    assertEquals(List.of("proj", "5", "{\"scan\":{\"severity\":\"5\"}}", "{\"scan\":{\"severity\":5}}", 11),
+        shard0.lastArgs);
+  }
+
+  @Test
+  void containmentCandidatesCoverEveryValueThatReadsAsTheText() {
+    assertEquals("[{\"a\":\"5\"}, {\"a\":5}]", PayloadSearchService.candidates("a", "5").toString());
+    assertEquals("[{\"a\":{\"b\":\"true\"}}, {\"a\":{\"b\":true}}]", PayloadSearchService.candidates("a.b", "true").toString());
+    assertEquals("[{\"a\":\"critical\"}]", PayloadSearchService.candidates("a", "critical").toString());
+    // An array element or JSON object text cannot be matched by containment
+    assertTrue(PayloadSearchService.candidates("items.0", "x").isEmpty());
+    assertTrue(PayloadSearchService.candidates("a", "{\"b\":1}").isEmpty());
+  }
+
+  @Test
+  void malformedRequestsAreRejected() {
+    assertThrows(IllegalArgumentException.class, () -> search.search("proj", null, null, null, "a.b", "x", 10, "not a cursor"));
+    assertThrows(IllegalArgumentException.class, () -> search.search("proj", null, null, null, "a;drop", "x", 10, null));
+    assertThrows(IllegalArgumentException.class, () -> search.search("proj", null, null, null, "a.b", null, 10, null));
+    assertThrows(IllegalArgumentException.class, () -> search.search("proj", null, null, null, null, null, 10, null));
+  }
+
+  private static Map<String, Object> key(String artifactId, long chainIndex) {
+    return Map.of("artifactId", artifactId, "chainIndex", chainIndex);
+  }
+
+  /** One shard's matching rows, answering the keyset query: cursor predicate, order and LIMIT. */
+  private static final class KeysetRows extends JdbcTemplate {
+    private final List<Map<String, Object>> rows;
+    String lastSql;
+    List<Object> lastArgs;
+
+    @SafeVarargs
+    KeysetRows(Map<String, Object>... rows) {
+      this.rows = List.of(rows);
+    }
+
+    @Override
+    public <T> List<T> query(String sql, RowMapper<T> mapper, Object... args) {
+      assertTrue(sql.contains("ORDER BY artifact_id COLLATE \"C\", chain_index"), sql);
+      lastSql = sql;
+      lastArgs = List.of(args);
+      List<Map<String, Object>> page = new ArrayList<>(rows);
+      page.sort(PayloadSearchService.KEYSET_ORDER);
+      if (sql.contains("chain_index) > (?, ?)")) {
+        Map<String, Object> after = key((String) args[args.length - 3], (Long) args[args.length - 2]);
+        page.removeIf(r -> PayloadSearchService.KEYSET_ORDER.compare(r, after) <= 0);
+      }
+      page = page.subList(0, Math.min(page.size(), (Integer) args[args.length - 1]));
+
+      List<T> out = new ArrayList<>();
+      for (Map<String, Object> r : page) {
+        ResultSet rs = (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ResultSet.class},
+            (proxy, method, a) -> switch ((String) a[0]) {
+              case "artifact_id" -> r.get("artifactId");
+              case "chain_index" -> r.get("chainIndex");
+              case "ts" -> Timestamp.from(Instant.EPOCH);
+              case "payload" -> "{\"k\":1}";
+              default -> "x";
+            });
+        try {
+          out.add(mapper.mapRow(rs, out.size()));
+        } catch (SQLException e) {
+          throw new IllegalStateException(e);
+        }
+      }
+      return out;
+    }
+  }
+}
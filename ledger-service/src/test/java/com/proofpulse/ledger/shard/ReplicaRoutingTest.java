@@ -0,0 +1,86 @@
+package com.proofpulse.ledger.shard;
+
+import com.proofpulse.ledger.chain.ChainVerificationService;
+import com.proofpulse.ledger.chain.InMemoryChainJdbc;
+import com.proofpulse.ledger.crypto.HashSuite;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.proofpulse.ledger.chain.InMemoryChainJdbc.ARTIFACT;
+import static com.proofpulse.ledger.chain.InMemoryChainJdbc.PROJECT;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingTest {
+
+  private final InMemoryChainJdbc primary = new InMemoryChainJdbc();
+  private final InMemoryChainJdbc replica = new InMemoryChainJdbc();
+
+  @Test
+  void caughtUpReplicaServesTheRead() throws Exception {
+    List<ChainVerificationService.Row> rows = InMemoryChainJdbc.chain(10, HashSuite.SHA256);
+    primary.insert(rows);
+    replica.insert(rows);
+    ShardRouter router = router(replica);
+
+    assertSame(replica, router.readerFor(PROJECT, ARTIFACT, null));
+    assertEquals(Map.of("replicaReads", 1L, "primaryFallbacks", 0L), router.readRoutingStats());
+  }
+
+  @Test
+  void laggingReplicaFallsBackToThePrimary() throws Exception {
+    List<ChainVerificationService.Row> rows = InMemoryChainJdbc.chain(10, HashSuite.SHA256);
+    primary.insert(rows);
+    replica.insert(rows.subList(0, 8));
+    ShardRouter router = router(replica);
+
+    assertSame(primary, router.readerFor(PROJECT, ARTIFACT, null));
+    assertSame(primary, router.readerFor(PROJECT, ARTIFACT, 9L));
+    // Far enough for the caller, and the primary stores the same hash at the replica's head
+    assertSame(replica, router.readerFor(PROJECT, ARTIFACT, 7L));
+  }
+
+  @Test
+  void replicaWithTheSameHeadIndexButAnUnreplayedRepairIsNotUsed() throws Exception {
+    List<ChainVerificationService.Row> rows = InMemoryChainJdbc.chain(10, HashSuite.SHA256);
+    replica.insert(rows);
+    List<ChainVerificationService.Row> repaired = new ArrayList<>(rows);
+    ChainVerificationService.Row head = rows.get(9);
+    repaired.set(9, InMemoryChainJdbc.withHash(head, head.prevHash(), "ab".repeat(32)));
+    primary.insert(repaired);
+    ShardRouter router = router(replica);
+
+    assertSame(primary, router.readerFor(PROJECT, ARTIFACT, null));
+    assertSame(primary, router.readerFor(PROJECT, ARTIFACT, 5L));
+    assertEquals(Map.of("replicaReads", 0L, "primaryFallbacks", 2L), router.readRoutingStats());
+  }
+
+  @Test
+  void unavailableReplicaFallsBackToThePrimary() throws Exception {
+    primary.insert(InMemoryChainJdbc.chain(3, HashSuite.SHA256));
+    JdbcTemplate down = new JdbcTemplate() {
+      @Override
+      public <T> T query(String sql, PreparedStatementSetter pss, ResultSetExtractor<T> rse) {
+        throw new DataAccessResourceFailureException("replica down");
+      }
+    };
+
+    assertSame(primary, router(down).readerFor(PROJECT, ARTIFACT, null));
+  }
+
+  @Test
+  void shardWithoutReplicaReadsFromThePrimary() throws Exception {
+    primary.insert(InMemoryChainJdbc.chain(3, HashSuite.SHA256));
+    assertSame(primary, router(null).readerFor(PROJECT, ARTIFACT, null));
+  }
+
+  private ShardRouter router(JdbcTemplate replicaJdbc) {
+    return InMemoryChainJdbc.singleShard(primary, replicaJdbc);
+  }
+}
@@ -0,0 +1,90 @@
+package com.proofpulse.ledger.shard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardRouterTest {
+
+  @Test
+  void jumpHashStaysInRangeAndSpreadsEvenly() {
+    Random random = new Random(42);
+    int[] counts = new int[8];
+    for (int i = 0; i < 80_000; i++) {
+      int b = ShardRouter.jumpHash(random.nextLong(), 8);
+      assertTrue(b >= 0 && b < 8);
+      counts[b]++;
+    }
+    for (int c : counts) {
+      assertTrue(c > 9_000 && c < 11_000, "bucket count " + c);
+    }
+    assertEquals(0, ShardRouter.jumpHash(123456789L, 1));
+  }
+
+  @Test
+  void addingABucketOnlyMovesKeysToTheNewBucket() {
+    Random random = new Random(7);
+    int moved = 0;
+    int keys = 50_000;
+    for (int i = 0; i < keys; i++) {
+      long key = random.nextLong();
+      int before = ShardRouter.jumpHash(key, 4);
+      int after = ShardRouter.jumpHash(key, 5);
+      if (before != after) {
+        assertEquals(4, after);
+        moved++;
+      }
+    }
+    // ~1/5 of the keys move
+    assertTrue(moved > keys * 0.18 && moved < keys * 0.22, "moved " + moved);
+  }
+
+  @Test
+  void projectModeKeepsAProjectOnOneShard() {
+    ShardRouter router = new ShardRouter(shards(4), ShardRouter.KeyMode.PROJECT);
+
+    Shard home = router.forChain("proj", "a");
+    for (int i = 0; i < 100; i++) {
+      assertSame(home, router.forChain("proj", "artifact-" + i));
+    }
+    assertEquals(List.of(home), router.forProject("proj"));
+  }
+
+  @Test
+  void chainModeSpreadsAProjectAndFansOutProjectReads() {
+    ShardRouter router = new ShardRouter(shards(4), ShardRouter.KeyMode.CHAIN);
+
+    boolean[] used = new boolean[4];
+    for (int i = 0; i < 200; i++) {
+      Shard s = router.forChain("proj", "artifact-" + i);
+      assertSame(s, router.forChain("proj", "artifact-" + i));
+      used[s.id()] = true;
+    }
+    for (boolean u : used) assertTrue(u);
+    assertEquals(4, router.forProject("proj").size());
+  }
+
+  @Test
+  void routingIsStableAcrossRouterInstances() {
+    ShardRouter a = new ShardRouter(shards(6), ShardRouter.KeyMode.CHAIN);
+    ShardRouter b = new ShardRouter(shards(6), ShardRouter.KeyMode.CHAIN);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(a.forChain("p", "x" + i).id(), b.forChain("p", "x" + i).id());
+    }
+  }
+
+  @Test
+  void atLeastOneShardIsRequired() {
+    assertThrows(IllegalArgumentException.class, () -> new ShardRouter(List.of(), ShardRouter.KeyMode.PROJECT));
+  }
+
+  private static List<Shard> shards(int n) {
+    List<Shard> out = new ArrayList<>();
+    for (int i = 0; i < n; i++) out.add(new Shard(i, null, null, null, null));
+    return out;
+  }
+}
@@ -0,0 +1,113 @@
+package com.proofpulse.ledger.stats;
+
+import com.proofpulse.ledger.shard.Shard;
+import com.proofpulse.ledger.shard.ShardRouter;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollupQueryTest {
+
+  private static final String H9 = "2024-05-01T09:00:00Z";
+  private static final String H10 = "2024-05-01T10:00:00Z";
+  private static final String H11 = "2024-05-01T11:00:00Z";
+
+  private final GroupedRows shard0 = new GroupedRows(
+      bucket("deploy", H10, 1),
+      bucket("build", H11, 4),
+      bucket("build", H10, 2));
+  // Routing by chain: both shards hold rollups of the project and the same bucket can come from each
+  private final RollupService rollups = new RollupService(new ShardRouter(List.of(
+      new Shard(0, null, shard0, null, null),
+      new Shard(1, null, new GroupedRows(
+          bucket("build", H10, 3),
+          bucket("build", H9, 5)), null, null)
+  ), ShardRouter.KeyMode.CHAIN), null);
+
+  @Test
+  void bucketsFromAllShardsAreMergedAndOrderedByGroupKey() {
+    Map<String, Object> result = rollups.query("proj", null, null, null, null, null, List.of("type", "hour"));
+
+    assertEquals(15L, result.get("totalEvents"));
+    assertEquals(List.of(
+        Map.of("type", "build", "hour", H9, "events", 5L),
+        Map.of("type", "build", "hour", H10, "events", 5L),
+        Map.of("type", "build", "hour", H11, "events", 4L),
+        Map.of("type", "deploy", "hour", H10, "events", 1L)
+    ), result.get("buckets"));
+  }
+
+  @Test
+  void boundsAreWidenedToTheHourBucketsTheyTouch() {
+    Map<String, Object> result = rollups.query("proj", null, null, null,
+        Instant.parse("2024-05-01T09:30:00Z"), Instant.parse("2024-05-01T10:15:00Z"), List.of("type"));
+
+    assertEquals(List.of("proj", Timestamp.from(Instant.parse(H9)), Timestamp.from(Instant.parse(H11))), shard0.lastArgs);
+    assertEquals(H9, result.get("from"));
+    assertEquals(H11, result.get("to"));
+
+    // Already on the hour: to stays exclusive
+    rollups.query("proj", null, null, null, null, Instant.parse(H10), List.of());
+    assertEquals(List.of("proj", Timestamp.from(Instant.parse(H10))), shard0.lastArgs);
+    assertThrows(IllegalArgumentException.class,
+        () -> rollups.query("proj", null, null, null, Instant.parse(H11), Instant.parse(H9), List.of()));
+  }
+
+  @Test
+  void groupKeysCompareDimensionByDimension() {
+    assertTrue(RollupService.compareKeys(List.of("build", H11), List.of("deploy", H9)) < 0);
+    assertTrue(RollupService.compareKeys(List.of("build", H11), List.of("build", H9)) > 0);
+    assertTrue(RollupService.compareKeys(Arrays.asList((String) null), List.of("a")) < 0);
+    assertEquals(0, RollupService.compareKeys(List.of(), List.of()));
+  }
+
+  @Test
+  void unknownDimensionOrBadInstantIsABadRequest() {
+    StatsController controller = new StatsController(rollups);
+
+    assertEquals(400, controller.stats("proj", null, null, null, null, null, "type,color").getStatusCode().value());
+    assertEquals(400, controller.stats("proj", null, null, null, "yesterday", null, "type").getStatusCode().value());
+    assertEquals(200, controller.stats("proj", null, null, null, H9, H11, "type,hour").getStatusCode().value());
+  }
+
+  private static Map<String, Object> bucket(String type, String hour, long events) {
+    return Map.of("type", type, "hour", Timestamp.from(Instant.parse(hour)), "events", events);
+  }
+
+  /** One shard's GROUP BY result, returned for any rollup query. */
+  private static final class GroupedRows extends JdbcTemplate {
+    private final List<Map<String, Object>> rows;
+    List<Object> lastArgs;
+
+    @SafeVarargs
+    GroupedRows(Map<String, Object>... rows) {
+      this.rows = List.of(rows);
+    }
+
+    @Override
+    public void query(String sql, RowCallbackHandler rch, Object... args) {
+      assertTrue(sql.contains("FROM evidence_rollup_hourly"), sql);
+      lastArgs = List.of(args);
+      for (Map<String, Object> row : rows) {
+        ResultSet rs = (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ResultSet.class},
+            (proxy, method, a) -> row.get((String) a[0]));
+        try {
+          rch.processRow(rs);
+        } catch (SQLException e) {
+          throw new IllegalStateException(e);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package com.proofpulse.ledger.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlobStoreConfigTest {
+
+  @Test
+  void localStoreIsSelectedWithoutABucket() {
+    // PP_S3_BUCKET is not set for tests
+    assertTrue(new BlobStoreConfig().blobStore() instanceof LocalBlobStore);
+  }
+
+  @Test
+  void s3ClientsAreNotBuiltUntilFirstUse() throws Exception {
+    S3BlobStore store = new S3BlobStore();
+    assertNull(field(store, "s3"));
+    assertNull(field(store, "presigner"));
+
+    // Without a bucket nothing is reachable, and still nothing is built
+    assertFalse(store.exists("any"));
+    assertThrows(IllegalStateException.class, () -> store.getObject("any"));
+    assertNull(field(store, "s3"));
+  }
+
+  @Test
+  void localStoreRejectsKeysOutsideItsRoot() {
+    LocalBlobStore store = new LocalBlobStore();
+    assertThrows(IllegalArgumentException.class, () -> store.getObject("../pom.xml"));
+    assertThrows(IllegalArgumentException.class, () -> store.putObject("segments/../../x", new byte[0], "text/plain"));
+  }
+
+  private static Object field(Object target, String name) throws Exception {
+    Field f = target.getClass().getDeclaredField(name);
+    f.setAccessible(true);
+    return f.get(target);
+  }
+}
@@ -0,0 +1,37 @@
+package com.proofpulse.ledger.storage;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** BlobStore backed by a map; objects can be swapped to simulate tampering. */
+public class InMemoryBlobStore implements BlobStore {
+
+  public final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+
+  @Override
+  public void put(String key, byte[] data) {
+    objects.put(key + ".json", data);
+  }
+
+  @Override
+  public byte[] get(String key) {
+    return getObject(key + ".json");
+  }
+
+  @Override
+  public boolean exists(String key) {
+    return objects.containsKey(key + ".json");
+  }
+
+  @Override
+  public void putObject(String key, byte[] data, String contentType) {
+    objects.put(key, data);
+  }
+
+  @Override
+  public byte[] getObject(String key) {
+    byte[] data = objects.get(key);
+    if (data == null) throw new IllegalStateException("No such object: " + key);
+    return data;
+  }
+}
@@ -0,0 +1,65 @@
+package com.proofpulse.ledger.storage;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.proofpulse.ledger.crypto.EventCanonical;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PayloadOffloaderTest {
+
+  private static final String BIG = "{\"log\":\"" + "x".repeat(200) + "\"}";
+
+  private final InMemoryBlobStore blobs = new InMemoryBlobStore();
+  private final PayloadOffloader offloader = new PayloadOffloader(blobs, 100);
+
+  @Test
+  void largePayloadsRoundTripThroughTheBlobStore() throws Exception {
+    JsonNode ref = offloader.offload(BIG);
+
+    assertTrue(PayloadOffloader.isReference(ref));
+    String key = ref.get(PayloadOffloader.REF_FIELD).get("key").asText();
+    assertEquals("payloads/" + ref.get(PayloadOffloader.REF_FIELD).get("sha256").asText() + ".json", key);
+    assertEquals(BIG.length(), ref.get(PayloadOffloader.REF_FIELD).get("size").asInt());
+    assertArrayEquals(BIG.getBytes(StandardCharsets.UTF_8), blobs.objects.get(key));
+    assertEquals(EventCanonical.mapper().readTree(BIG), offloader.resolve(ref));
+  }
+
+  @Test
+  void smallPayloadsStayInline() throws Exception {
+    assertNull(offloader.offload("{\"a\":1}"));
+    assertTrue(blobs.objects.isEmpty());
+    assertNull(new PayloadOffloader(blobs, 0).offload(BIG));
+
+    JsonNode inline = EventCanonical.mapper().readTree("{\"a\":1}");
+    assertSame(inline, offloader.resolve(inline));
+  }
+
+  @Test
+  void aSwappedBlobIsDetectedOnRead() throws Exception {
+    JsonNode ref = offloader.offload(BIG);
+    String key = ref.get(PayloadOffloader.REF_FIELD).get("key").asText();
+    blobs.objects.put(key, BIG.replace('x', 'y').getBytes(StandardCharsets.UTF_8));
+
+    assertThrows(IllegalStateException.class, () -> offloader.resolve(ref));
+  }
+
+  @Test
+  void referencesOnlyPointAtContentAddressedKeys() throws Exception {
+    ObjectNode ref = (ObjectNode) offloader.offload(BIG);
+    blobs.objects.put("segments/secret.json", BIG.getBytes(StandardCharsets.UTF_8));
+    ((ObjectNode) ref.get(PayloadOffloader.REF_FIELD)).put("key", "segments/secret.json");
+
+    assertThrows(IllegalStateException.class, () -> offloader.resolve(ref));
+  }
+
+  @Test
+  void clientPayloadsMayNotUseTheReferenceField() throws Exception {
+    assertTrue(PayloadOffloader.usesReservedField(EventCanonical.mapper().readTree("{\"$blobRef\":{},\"a\":1}")));
+    assertFalse(PayloadOffloader.isReference(EventCanonical.mapper().readTree("{\"$blobRef\":{},\"a\":1}")));
+    assertFalse(PayloadOffloader.usesReservedField(EventCanonical.mapper().readTree("{\"a\":{\"$blobRef\":{}}}")));
+  }
+}